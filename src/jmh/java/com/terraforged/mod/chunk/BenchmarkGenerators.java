@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk;
+
+import com.terraforged.mod.biome.context.TFBiomeContext;
+import com.terraforged.mod.biome.provider.TFBiomeProvider;
+import com.terraforged.mod.chunk.settings.TerraSettings;
+import net.minecraft.util.SharedConstants;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraft.util.registry.WorldGenRegistries;
+import net.minecraft.world.gen.DimensionSettings;
+
+/**
+ * Creates chunk generators for benchmarks from the default TerraSettings and the builtin registries.
+ */
+public class BenchmarkGenerators {
+
+    public static final long SEED = 8008135L;
+
+    public static TFChunkGenerator create() {
+        return create(SEED);
+    }
+
+    public static TFChunkGenerator create(long seed) {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        TerraSettings settings = TerraSettings.defaults(seed);
+        TerraContext context = new TerraContext(settings, TFBiomeContext.dynamic());
+        DimensionSettings dimension = WorldGenRegistries.NOISE_GENERATOR_SETTINGS.getOrThrow(DimensionSettings.OVERWORLD);
+
+        return new TFChunkGenerator(new TFBiomeProvider(context), () -> dimension);
+    }
+}
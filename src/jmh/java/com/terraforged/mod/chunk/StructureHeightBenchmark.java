@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockReader;
+import net.minecraft.world.gen.Heightmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the base height & column queries that structure starts make against the chunk generator.
+ *
+ * Village starts assemble ~80 jigsaw pieces spread over a radius of ~80 blocks, querying the height at each piece
+ * and at its junctions. Outposts assemble ~10 pieces within ~32 blocks. Column queries scan down from the surface of
+ * a base column, as features that look for solid ground do.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class StructureHeightBenchmark {
+
+    private static final int STARTS = 256;
+    private static final int START_SPACING = 512;
+
+    private TFChunkGenerator generator;
+    private int[][] villages;
+    private int[][] outposts;
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        generator = BenchmarkGenerators.create();
+
+        Random random = new Random(BenchmarkGenerators.SEED);
+        villages = new int[STARTS][];
+        outposts = new int[STARTS][];
+        for (int i = 0; i < STARTS; i++) {
+            int startX = (i % 16) * START_SPACING;
+            int startZ = (i / 16) * START_SPACING;
+            villages[i] = createQueries(random, startX, startZ, 80, 80 * 3);
+            outposts[i] = createQueries(random, startX, startZ, 32, 10 * 3);
+        }
+    }
+
+    @Benchmark
+    public int village() {
+        return heights(villages[next()]);
+    }
+
+    @Benchmark
+    public int outpost() {
+        return heights(outposts[next()]);
+    }
+
+    @Benchmark
+    public void column(Blackhole blackhole) {
+        int[] queries = outposts[next()];
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int i = 0; i < queries.length; i += 2) {
+            int x = queries[i];
+            int z = queries[i + 1];
+            IBlockReader column = generator.getBaseColumn(x, z);
+            int top = generator.getBaseHeight(x, z, Heightmap.Type.WORLD_SURFACE_WG);
+            for (int y = top; y > top - 16; y--) {
+                BlockState state = column.getBlockState(pos.set(x, y, z));
+                blackhole.consume(state);
+            }
+        }
+    }
+
+    private int next() {
+        return index++ % STARTS;
+    }
+
+    private int heights(int[] queries) {
+        int sum = 0;
+        for (int i = 0; i < queries.length; i += 2) {
+            sum += generator.getFirstFreeHeight(queries[i], queries[i + 1], Heightmap.Type.WORLD_SURFACE_WG);
+        }
+        return sum;
+    }
+
+    // Pieces are clustered around the start with junctions queried a few blocks either side of each piece
+    private static int[] createQueries(Random random, int startX, int startZ, int radius, int count) {
+        int[] queries = new int[count * 2];
+        for (int i = 0; i < count; i += 3) {
+            int x = startX + random.nextInt(radius * 2) - radius;
+            int z = startZ + random.nextInt(radius * 2) - radius;
+            for (int j = 0; j < 3 && i + j < count; j++) {
+                queries[(i + j) * 2] = x + j * 4;
+                queries[(i + j) * 2 + 1] = z;
+            }
+        }
+        return queries;
+    }
+}
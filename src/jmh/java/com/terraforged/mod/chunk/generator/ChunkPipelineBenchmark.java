@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk.generator;
+
+import com.terraforged.engine.tile.chunk.ChunkReader;
+import com.terraforged.mod.api.chunk.column.DecoratorContext;
+import com.terraforged.mod.biome.TFBiomeContainer;
+import com.terraforged.mod.chunk.BenchmarkGenerators;
+import com.terraforged.mod.chunk.TFChunkGenerator;
+import com.terraforged.mod.chunk.util.BulkChunk;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.palette.UpgradeData;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.gen.GenerationStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the individual chunk generation stages on synthetic ChunkPrimers.
+ *
+ * The generator is built from the default TerraSettings with a fixed seed and the tiles covering the benchmarked
+ * chunks are generated up front, so the numbers only include the stage being measured and are comparable between
+ * runs and config changes. Run with -Pjmh.prof=gc to see the bytes allocated per generated chunk for each stage.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkPipelineBenchmark {
+
+    private static final int CHUNK_RADIUS = 8;
+
+    @State(Scope.Benchmark)
+    public static class Pipeline {
+
+        private TFChunkGenerator generator;
+        private BiomeGenerator biomeGenerator;
+        private BaseGenerator baseGenerator;
+        private SurfaceGenerator surfaceGenerator;
+        private FeatureGenerator featureGenerator;
+        private TerrainCarver terrainCarver;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            generator = BenchmarkGenerators.create();
+            biomeGenerator = new BiomeGenerator(generator);
+            baseGenerator = new BaseGenerator(generator);
+            surfaceGenerator = new SurfaceGenerator(generator);
+            featureGenerator = new FeatureGenerator(generator);
+            terrainCarver = new TerrainCarver(generator);
+
+            // Build the tiles for all benchmarked chunks up front
+            for (int z = -CHUNK_RADIUS; z < CHUNK_RADIUS; z++) {
+                for (int x = -CHUNK_RADIUS; x < CHUNK_RADIUS; x++) {
+                    generator.getTile(x, z);
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Chunk {
+
+        private int index = 0;
+        private ChunkPos pos;
+        private ChunkPrimer primer;
+        private ChunkReader reader;
+
+        // Advances through the benchmarked chunks so that each invocation works on a different column of cells
+        protected void next(Pipeline pipeline) {
+            int size = CHUNK_RADIUS * 2;
+            int i = index++ % (size * size);
+            pos = new ChunkPos((i % size) - CHUNK_RADIUS, (i / size) - CHUNK_RADIUS);
+            primer = new ChunkPrimer(pos, UpgradeData.EMPTY);
+            reader = pipeline.generator.getChunkReader(pos.x, pos.z);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            reader.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BiomeChunk extends Chunk {
+
+        @Setup(Level.Invocation)
+        public void setup(Pipeline pipeline) {
+            next(pipeline);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TerrainChunk extends Chunk {
+
+        @Setup(Level.Invocation)
+        public void setup(Pipeline pipeline) {
+            next(pipeline);
+            pipeline.biomeGenerator.generateBiomes(primer);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SurfaceChunk extends Chunk {
+
+        @Setup(Level.Invocation)
+        public void setup(Pipeline pipeline) {
+            next(pipeline);
+            pipeline.biomeGenerator.generateBiomes(primer);
+            pipeline.baseGenerator.generateTerrain(null, primer, null);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PostProcessChunk extends Chunk {
+
+        private TFBiomeContainer container;
+
+        @Setup(Level.Invocation)
+        public void setup(Pipeline pipeline) {
+            next(pipeline);
+            pipeline.biomeGenerator.generateBiomes(primer);
+            pipeline.baseGenerator.generateTerrain(null, primer, null);
+            pipeline.surfaceGenerator.generateSurface(null, primer);
+            container = TFBiomeContainer.getOrCreate(primer, reader, pipeline.generator.getBiomeSource());
+        }
+    }
+
+    @Benchmark
+    public TFBiomeContainer biomeContainer(Pipeline pipeline, BiomeChunk chunk) {
+        return TFBiomeContainer.create(chunk.reader, pipeline.generator.getBiomeSource());
+    }
+
+    @Benchmark
+    public ChunkPrimer terrain(Pipeline pipeline, TerrainChunk chunk) {
+        pipeline.baseGenerator.generateTerrain(null, chunk.primer, null);
+        return chunk.primer;
+    }
+
+    @Benchmark
+    public ChunkPrimer surface(Pipeline pipeline, SurfaceChunk chunk) {
+        pipeline.surfaceGenerator.generateSurface(null, chunk.primer);
+        return chunk.primer;
+    }
+
+    @Benchmark
+    public ChunkPrimer carve(Pipeline pipeline, PostProcessChunk chunk) {
+        pipeline.terrainCarver.carveTerrain(null, chunk.primer, GenerationStage.Carving.AIR);
+        return chunk.primer;
+    }
+
+    // The full heightmap scan the surface stage used to run on every chunk, kept as a reference for the time saved
+    @Benchmark
+    public ChunkPrimer heightmapPrime(PostProcessChunk chunk) {
+        BulkChunk.primeWGHeightmaps(chunk.primer);
+        return chunk.primer;
+    }
+
+    @Benchmark
+    public ChunkPrimer postProcess(Pipeline pipeline, PostProcessChunk chunk) {
+        try (DecoratorContext context = pipeline.generator.getContext().decorator(chunk.primer)) {
+            pipeline.featureGenerator.postProcess(chunk.reader, chunk.container, context);
+        }
+        return chunk.primer;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.profiler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares punch-in/punch-out throughput of the Profiler against the previous shared-AtomicLong accounting.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProfilerBenchmark {
+
+    private static final AtomicAccounting ATOMIC = new AtomicAccounting();
+
+    @Benchmark
+    @Threads(1)
+    public void profiler_1() {
+        punch();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void profiler_8() {
+        punch();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void profiler_32() {
+        punch();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void atomic_1() {
+        ATOMIC.punch();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void atomic_8() {
+        ATOMIC.punch();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void atomic_32() {
+        ATOMIC.punch();
+    }
+
+    private static void punch() {
+        Profiler.TERRAIN.punchIn();
+        Profiler.TERRAIN.punchOut();
+    }
+
+    // The accounting used by Profiler before it was striped
+    private static class AtomicAccounting {
+
+        private final AtomicLong time = new AtomicLong();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong longest = new AtomicLong();
+        private final AtomicLong shortest = new AtomicLong(Long.MAX_VALUE);
+
+        private void punch() {
+            long timestamp = System.nanoTime();
+            long duration = System.nanoTime() - timestamp;
+            time.addAndGet(duration);
+            hits.incrementAndGet();
+
+            if (duration <= 0) {
+                return;
+            }
+
+            long max = longest.get();
+            if (duration > max) {
+                longest.compareAndSet(max, duration);
+            }
+
+            long min = shortest.get();
+            if (duration < min) {
+                shortest.compareAndSet(min, duration);
+            }
+        }
+    }
+}
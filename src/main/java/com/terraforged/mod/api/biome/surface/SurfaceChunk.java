@@ -42,6 +42,13 @@ public class SurfaceChunk extends ChunkDelegate {
         super(chunk);
     }
 
+    public SurfaceChunk init(IChunk chunk) {
+        delegate = chunk;
+        surfaceTop = 0;
+        surfaceBottom = 0;
+        return this;
+    }
+
     @Override
     public BlockState getBlockState(BlockPos pos) {
         BlockState state = super.getBlockState(pos);
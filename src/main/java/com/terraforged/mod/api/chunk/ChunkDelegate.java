@@ -60,7 +60,7 @@ import java.util.stream.Stream;
 
 public class ChunkDelegate implements IChunk {
 
-    protected final IChunk delegate;
+    protected IChunk delegate;
 
     public ChunkDelegate(IChunk delegate) {
         this.delegate = delegate;
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.api.chunk.column;
+
+import com.terraforged.engine.cell.Cell;
+import net.minecraft.world.biome.Biome;
+
+import java.util.Arrays;
+
+/**
+ * The per-column inputs of a chunk for ChunkDecorators, indexed by {@link #indexOf(int, int)}.
+ *
+ * The most frequently read cell fields are also copied into primitive arrays so that decorators can loop over them
+ * without going through the Cell objects. Cells are only valid for the duration of the current generation stage.
+ */
+public class ChunkColumns {
+
+    public static final int SIZE = 16 * 16;
+
+    public final Cell[] cells = new Cell[SIZE];
+    public final Biome[] biomes = new Biome[SIZE];
+    public final int[] heights = new int[SIZE];
+    public final float[] values = new float[SIZE];
+    public final float[] gradients = new float[SIZE];
+    // Only populated by the surface stage
+    public final int[] surfaceLevels = new int[SIZE];
+    public final double[] noise = new double[SIZE];
+
+    public void set(int dx, int dz, Cell cell, int height, Biome biome) {
+        int index = indexOf(dx, dz);
+        cells[index] = cell;
+        biomes[index] = biome;
+        heights[index] = height;
+        values[index] = cell.value;
+        gradients[index] = cell.gradient;
+    }
+
+    /**
+     * Records the surface stage inputs of a column so that they can be restored for per-column decorators
+     */
+    public void setSurface(int dx, int dz, int surfaceLevel, double noise) {
+        int index = indexOf(dx, dz);
+        this.surfaceLevels[index] = surfaceLevel;
+        this.noise[index] = noise;
+    }
+
+    public ChunkColumns clear() {
+        Arrays.fill(cells, null);
+        Arrays.fill(biomes, null);
+        return this;
+    }
+
+    public static int indexOf(int dx, int dz) {
+        return (dz << 4) + dx;
+    }
+}
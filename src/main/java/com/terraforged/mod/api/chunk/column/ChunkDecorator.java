@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.api.chunk.column;
+
+import com.terraforged.mod.api.biome.surface.SurfaceChunk;
+import net.minecraft.world.chunk.IChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch variant of ColumnDecorator that is invoked once per chunk with the inputs for all 256 columns.
+ *
+ * ColumnDecorators that don't implement this interface are run through a {@link ColumnDecoratorAdapter}.
+ */
+public interface ChunkDecorator {
+
+    void decorate(IChunk chunk, DecoratorContext context, ChunkColumns columns);
+
+    default void decorate(SurfaceChunk buffer, DecoratorContext context, ChunkColumns columns) {
+        decorate(buffer.getDelegate(), context, columns);
+    }
+
+    static ChunkDecorator of(ColumnDecorator decorator) {
+        if (decorator instanceof ChunkDecorator) {
+            return (ChunkDecorator) decorator;
+        }
+        return new ColumnDecoratorAdapter(decorator);
+    }
+
+    static List<ChunkDecorator> of(List<ColumnDecorator> decorators) {
+        List<ChunkDecorator> list = new ArrayList<>(decorators.size());
+        for (ColumnDecorator decorator : decorators) {
+            list.add(of(decorator));
+        }
+        return list;
+    }
+}
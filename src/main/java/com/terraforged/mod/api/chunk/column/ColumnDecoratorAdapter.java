@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.api.chunk.column;
+
+import com.terraforged.mod.api.biome.surface.SurfaceChunk;
+import com.terraforged.mod.api.biome.surface.SurfaceContext;
+import net.minecraft.world.chunk.IChunk;
+
+/**
+ * Runs a per-column ColumnDecorator over a chunk's columns, populating the context for each column as before.
+ */
+public class ColumnDecoratorAdapter implements ChunkDecorator {
+
+    private final ColumnDecorator decorator;
+
+    public ColumnDecoratorAdapter(ColumnDecorator decorator) {
+        this.decorator = decorator;
+    }
+
+    @Override
+    public void decorate(IChunk chunk, DecoratorContext context, ChunkColumns columns) {
+        for (int dz = 0; dz < 16; dz++) {
+            for (int dx = 0; dx < 16; dx++) {
+                int index = ChunkColumns.indexOf(dx, dz);
+                int x = context.blockX + dx;
+                int y = columns.heights[index];
+                int z = context.blockZ + dz;
+                context.cell = columns.cells[index];
+                context.biome = columns.biomes[index];
+                context.pos.set(x, y, z);
+                decorator.decorate(chunk, context, x, y, z);
+            }
+        }
+    }
+
+    @Override
+    public void decorate(SurfaceChunk buffer, DecoratorContext context, ChunkColumns columns) {
+        for (int dz = 0; dz < 16; dz++) {
+            for (int dx = 0; dx < 16; dx++) {
+                int index = ChunkColumns.indexOf(dx, dz);
+                int x = context.blockX + dx;
+                int y = columns.heights[index];
+                int z = context.blockZ + dz;
+                context.cell = columns.cells[index];
+                context.biome = columns.biomes[index];
+                context.pos.set(x, y, z);
+                if (context instanceof SurfaceContext) {
+                    ((SurfaceContext) context).surfaceY = y;
+                    ((SurfaceContext) context).noise = columns.noise[index];
+                }
+                buffer.setSurfaceLevel(columns.surfaceLevels[index]);
+                decorator.decorate(buffer, context, x, y, z);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return decorator.toString();
+    }
+}
@@ -29,7 +29,6 @@ import com.terraforged.engine.tile.chunk.ChunkReader;
 import com.terraforged.engine.util.pos.PosIterator;
 import com.terraforged.mod.biome.context.TFBiomeContext;
 import com.terraforged.mod.biome.provider.TFBiomeProvider;
-import com.terraforged.mod.chunk.util.FastChunk;
 import com.terraforged.noise.source.Line;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.biome.Biome;
@@ -95,12 +94,8 @@ public class TFBiomeContainer extends BiomeContainer {
         }
 
         TFBiomeContainer container = TFBiomeContainer.create(reader, biomeProvider);
-        if (chunk instanceof FastChunk) {
-            ((FastChunk) chunk).setBiomes(container);
-        } else {
-            // replace/set the primer's biomes
-            ((ChunkPrimer) chunk).setBiomes(container);
-        }
+        // replace/set the primer's biomes
+        ((ChunkPrimer) chunk).setBiomes(container);
 
         return container;
     }
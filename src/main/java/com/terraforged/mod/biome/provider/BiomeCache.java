@@ -27,26 +27,74 @@ package com.terraforged.mod.biome.provider;
 import com.terraforged.engine.cell.Cell;
 import com.terraforged.engine.util.pos.PosUtil;
 import com.terraforged.engine.world.biome.map.BiomeMap;
-import it.unimi.dsi.fastutil.Hash;
 import it.unimi.dsi.fastutil.HashCommon;
-import it.unimi.dsi.fastutil.longs.Long2IntLinkedOpenHashMap;
 
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * A lock-free, set-associative cache of noise-biome ids.
+ *
+ * Each entry packs the biome coordinates, a clock reference bit and the biome id into a single long so that reads
+ * and writes are single atomic operations. Keys hash to a set of WAYS entries; a miss is stored in an empty way or
+ * in the first way whose reference bit is clear (clearing bits as the clock hand passes). Writers that lose a race
+ * simply don't cache their value, so lookups never block and never skip the cache under contention.
+ *
+ * When enabled, the BiomePatchCache is checked first so that areas already covered by generated tiles don't need an
+ * entry per biome coordinate.
+ */
 public class BiomeCache {
 
     private static final int CACHE_SIZE = 256 * 256;
+    private static final int WAYS = 4;
+    private static final int SET_MASK = (CACHE_SIZE / WAYS) - 1;
+
+    private static final int COORD_BITS = 24;
+    private static final int COORD_MASK = (1 << COORD_BITS) - 1;
+    private static final int MIN_COORD = -(1 << (COORD_BITS - 1));
+    private static final int MAX_COORD = (1 << (COORD_BITS - 1)) - 1;
+
+    // value is stored as id + 1 so that an empty entry (0) can never match
+    private static final long VALUE_MASK = 0x7FFFL;
+    private static final long REF_BIT = 0x8000L;
+    private static final long KEY_MASK = ~(VALUE_MASK | REF_BIT);
+    private static final int MAX_VALUE = (int) VALUE_MASK - 1;
 
-    private final int maxSize;
     private final TFBiomeProvider biomeProvider;
-    private final Long2IntLinkedOpenHashMap cache;
-    private final StampedLock lock = new StampedLock();
+    private final BiomePatchCache patchCache;
+    private final AtomicLongArray entries = new AtomicLongArray(CACHE_SIZE);
+    private final byte[] hands = new byte[CACHE_SIZE / WAYS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder contention = new LongAdder();
 
     public BiomeCache(TFBiomeProvider biomeProvider) {
         this.biomeProvider = biomeProvider;
-        this.cache = new Long2IntLinkedOpenHashMap(CACHE_SIZE, Hash.DEFAULT_LOAD_FACTOR);
-        this.cache.defaultReturnValue(BiomeMap.NULL_BIOME);
-        this.maxSize = HashCommon.maxFill(CACHE_SIZE, Hash.DEFAULT_LOAD_FACTOR) - 2;
+        this.patchCache = BiomePatchCache.create(biomeProvider);
+    }
+
+    public BiomePatchCache getPatchCache() {
+        return patchCache;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long contention() {
+        return contention.sum();
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        contention.reset();
+        patchCache.resetStats();
     }
 
     public int tryGetBiome(Cell cell, int blockX, int blockZ, boolean load) {
@@ -59,34 +107,66 @@ public class BiomeCache {
     }
 
     public int getNoiseBiome(Cell cell, int biomeX, int biomeZ, boolean load) {
-        final long key = PosUtil.pack(biomeX, biomeZ);
+        int patched = patchCache.getBiome(biomeX, biomeZ);
+        if (patched != BiomeMap.NULL_BIOME) {
+            return patched;
+        }
 
-        final long read = lock.tryReadLock();
-        if (read == 0L) {
+        if (!isInRange(biomeX, biomeZ)) {
+            misses.increment();
             return computeValue(cell, biomeX, biomeZ, load);
         }
 
-        try {
-            int value = cache.get(key);
-            if (value != BiomeMap.NULL_BIOME) {
-                return value;
-            }
+        final long key = packKey(biomeX, biomeZ);
+        final int set = indexOf(biomeX, biomeZ);
+
+        int value = readValue(set, key);
+        if (value != BiomeMap.NULL_BIOME) {
+            hits.increment();
+            return value;
+        }
+
+        misses.increment();
+        value = computeValue(cell, biomeX, biomeZ, load);
+        storeValue(set, key, value);
+        return value;
+    }
+
+    /**
+     * Fills the ids array with the biomes of a width x length grid of block positions starting at (blockX, blockZ) and
+     * spaced by step blocks, in row order (index = row * width + column). Each row is probed in the cache first, then
+     * its misses are computed in order along the row and stored together.
+     */
+    public void getBiomes(Cell cell, int blockX, int blockZ, int width, int length, int step, int[] ids, boolean load) {
+        final boolean cacheable = isCacheable(blockX, blockZ) && isCacheable(step, step);
+        final int[] missing = new int[width];
 
-            final long write = lock.tryConvertToWriteLock(read);
-            if (write == 0L) {
-                return computeValue(cell, biomeX, biomeZ, load);
+        for (int row = 0; row < length; row++) {
+            final int z = blockZ + row * step;
+            final int offset = row * width;
+
+            int missCount = 0;
+            for (int column = 0; column < width; column++) {
+                int value = cacheable ? readCached((blockX + column * step) >> 2, z >> 2) : BiomeMap.NULL_BIOME;
+                if (value == BiomeMap.NULL_BIOME) {
+                    missing[missCount++] = column;
+                }
+                ids[offset + column] = value;
             }
 
-            try {
-                value = computeValue(cell, biomeX, biomeZ, load);
-                storeValue(key, value);
-                return value;
-            } finally {
-                lock.unlockWrite(write);
+            hits.add(width - missCount);
+            misses.add(missCount);
+
+            for (int i = 0; i < missCount; i++) {
+                int x = blockX + missing[i] * step;
+                ids[offset + missing[i]] = computeBlockValue(cell, x, z, load);
             }
-        } finally {
-            if (lock.validate(read)) {
-                lock.unlockRead(read);
+
+            if (cacheable) {
+                for (int i = 0; i < missCount; i++) {
+                    int x = blockX + missing[i] * step;
+                    tryStoreNoiseBiome(x >> 2, z >> 2, ids[offset + missing[i]]);
+                }
             }
         }
     }
@@ -100,28 +180,101 @@ public class BiomeCache {
     }
 
     public void tryStoreNoiseBiome(int biomeX, int biomeZ, int value) {
-        final long key = PosUtil.pack(biomeX, biomeZ);
-        final long write = lock.tryWriteLock();
-        if (write != 0) {
-            try {
-                storeValue(key, value);
-            } finally {
-                lock.unlockWrite(write);
-            }
+        if (isInRange(biomeX, biomeZ)) {
+            storeValue(indexOf(biomeX, biomeZ), packKey(biomeX, biomeZ), value);
         }
     }
 
     private int computeValue(Cell cell, int biomeX, int biomeZ, boolean load) {
-        int blockX = biomeX << 2;
-        int blockZ = biomeZ << 2;
+        return computeBlockValue(cell, biomeX << 2, biomeZ << 2, load);
+    }
+
+    private int computeBlockValue(Cell cell, int blockX, int blockZ, boolean load) {
+        // previously generated chunks may have their biomes persisted in the tile store (read once per chunk & thread,
+        // and never opening files on this thread)
+        int stored = biomeProvider.getContext().tileStore.get().getBiome(blockX, blockZ);
+        if (BiomeMap.isValid(stored)) {
+            return stored;
+        }
+
         return biomeProvider.computeBiome(cell, blockX, blockZ, load);
     }
 
-    private void storeValue(long key, int value) {
-        if (cache.size() >= maxSize) {
-            cache.removeFirstInt();
+    private int readCached(int biomeX, int biomeZ) {
+        int value = patchCache.getBiome(biomeX, biomeZ);
+        if (value == BiomeMap.NULL_BIOME && isInRange(biomeX, biomeZ)) {
+            value = readValue(indexOf(biomeX, biomeZ), packKey(biomeX, biomeZ));
+        }
+        return value;
+    }
+
+    private int readValue(int set, long key) {
+        for (int i = set, end = set + WAYS; i < end; i++) {
+            long entry = entries.get(i);
+            if ((entry & KEY_MASK) == key && entry != 0L) {
+                if ((entry & REF_BIT) == 0L) {
+                    // failing to mark the entry only makes it an earlier eviction candidate
+                    entries.compareAndSet(i, entry, entry | REF_BIT);
+                }
+                return (int) (entry & VALUE_MASK) - 1;
+            }
+        }
+        return BiomeMap.NULL_BIOME;
+    }
+
+    private void storeValue(int set, long key, int value) {
+        if (value < 0 || value > MAX_VALUE) {
+            return;
+        }
+
+        final long update = key | (value + 1);
+
+        // fill an empty way, or bail if another thread already stored this key
+        for (int i = set, end = set + WAYS; i < end; i++) {
+            long entry = entries.get(i);
+            if (entry == 0L) {
+                if (!entries.compareAndSet(i, 0L, update)) {
+                    contention.increment();
+                }
+                return;
+            }
+            if ((entry & KEY_MASK) == key) {
+                return;
+            }
+        }
+
+        // clock sweep: clear reference bits until an unreferenced way is found (bounded to two passes)
+        final int hand = set / WAYS;
+        int way = hands[hand] & (WAYS - 1);
+        for (int n = 0; n < WAYS * 2; n++, way = (way + 1) & (WAYS - 1)) {
+            int index = set + way;
+            long entry = entries.get(index);
+            if ((entry & REF_BIT) != 0L) {
+                entries.compareAndSet(index, entry, entry & ~REF_BIT);
+                continue;
+            }
+
+            // racy hand updates are harmless, they only shift which way is evicted next
+            hands[hand] = (byte) (way + 1);
+            if (!entries.compareAndSet(index, entry, update)) {
+                contention.increment();
+            }
+            return;
         }
-        cache.put(key, value);
+
+        contention.increment();
+    }
+
+    private static int indexOf(int biomeX, int biomeZ) {
+        return ((int) HashCommon.mix(PosUtil.pack(biomeX, biomeZ)) & SET_MASK) * WAYS;
+    }
+
+    private static long packKey(int biomeX, int biomeZ) {
+        return ((long) (biomeX & COORD_MASK) << 40) | ((long) (biomeZ & COORD_MASK) << 16);
+    }
+
+    private static boolean isInRange(int biomeX, int biomeZ) {
+        return biomeX >= MIN_COORD && biomeX <= MAX_COORD && biomeZ >= MIN_COORD && biomeZ <= MAX_COORD;
     }
 
     private static boolean isCacheable(int blockX, int blockZ) {
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.biome.provider;
+
+import com.terraforged.engine.cell.Cell;
+import com.terraforged.engine.tile.chunk.ChunkReader;
+import com.terraforged.engine.util.pos.PosUtil;
+import com.terraforged.engine.world.biome.map.BiomeMap;
+import com.terraforged.mod.chunk.tile.TileScheduler;
+import com.terraforged.mod.config.ConfigManager;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches the biome ids of whole 64x64 biome-coordinate (16x16 chunk) patches as dense short arrays.
+ *
+ * A patch is only filled when the tiles covering it are already held in memory by the TileScheduler, in which case
+ * its biomes are read straight from the tiles' cells rather than computed from noise. Patches are held in a small
+ * direct-mapped table, and patches that couldn't be filled are remembered for a short time so that lookups in
+ * ungenerated areas fall through to the per-coordinate cache without re-checking the tiles on every call.
+ */
+public class BiomePatchCache {
+
+    public static final String ENABLED_KEY = "biome_patch_cache";
+    public static final boolean DEFAULT_ENABLED = false;
+
+    private static final int PATCH_BITS = 6;
+    private static final int PATCH_SIZE = 1 << PATCH_BITS;
+    private static final int PATCH_MASK = PATCH_SIZE - 1;
+    private static final int PATCH_CHUNKS = PATCH_SIZE >> 2;
+    private static final int SLOTS = 128;
+    private static final long RETRY_TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final TFBiomeProvider biomeProvider;
+    private final AtomicReferenceArray<Patch> patches = new AtomicReferenceArray<>(SLOTS);
+    private final LongOpenHashSet filling = new LongOpenHashSet();
+    private volatile Supplier<TileScheduler> tileSource = null;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fills = new LongAdder();
+
+    public BiomePatchCache(TFBiomeProvider biomeProvider, boolean enabled) {
+        this.biomeProvider = biomeProvider;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long fills() {
+        return fills.sum();
+    }
+
+    public void resetStats() {
+        hits.reset();
+        fills.reset();
+    }
+
+    public void setTileSource(Supplier<TileScheduler> tileSource) {
+        this.tileSource = tileSource;
+    }
+
+    public int getBiome(int biomeX, int biomeZ) {
+        if (!enabled) {
+            return BiomeMap.NULL_BIOME;
+        }
+
+        final int patchX = biomeX >> PATCH_BITS;
+        final int patchZ = biomeZ >> PATCH_BITS;
+        final long key = PosUtil.pack(patchX, patchZ);
+        final int slot = (int) HashCommon.mix(key) & (SLOTS - 1);
+
+        Patch patch = patches.get(slot);
+        if (patch == null || patch.key != key || (patch.ids == null && System.nanoTime() > patch.retryTime)) {
+            patch = fill(slot, key, patchX, patchZ);
+        }
+
+        if (patch == null || patch.ids == null) {
+            return BiomeMap.NULL_BIOME;
+        }
+
+        hits.increment();
+        return patch.ids[((biomeZ & PATCH_MASK) << PATCH_BITS) | (biomeX & PATCH_MASK)];
+    }
+
+    private Patch fill(int slot, long key, int patchX, int patchZ) {
+        Supplier<TileScheduler> source = tileSource;
+        if (source == null) {
+            return null;
+        }
+
+        TileScheduler scheduler = source.get();
+        int minChunkX = patchX * PATCH_CHUNKS;
+        int minChunkZ = patchZ * PATCH_CHUNKS;
+        int maxChunkX = minChunkX + PATCH_CHUNKS - 1;
+        int maxChunkZ = minChunkZ + PATCH_CHUNKS - 1;
+        if (!scheduler.isResident(minChunkX, minChunkZ, maxChunkX, maxChunkZ)) {
+            return setMissing(slot, key);
+        }
+
+        // another thread is already reading the tiles for this patch
+        synchronized (filling) {
+            if (!filling.add(key)) {
+                return null;
+            }
+        }
+
+        try {
+            short[] ids = new short[PATCH_SIZE * PATCH_SIZE];
+            for (int cz = 0; cz < PATCH_CHUNKS; cz++) {
+                for (int cx = 0; cx < PATCH_CHUNKS; cx++) {
+                    if (!readChunk(scheduler, minChunkX + cx, minChunkZ + cz, cx, cz, ids)) {
+                        return setMissing(slot, key);
+                    }
+                }
+            }
+
+            Patch patch = new Patch(key, ids, 0L);
+            patches.set(slot, patch);
+            fills.increment();
+            return patch;
+        } finally {
+            synchronized (filling) {
+                filling.remove(key);
+            }
+        }
+    }
+
+    private boolean readChunk(TileScheduler scheduler, int chunkX, int chunkZ, int cx, int cz, short[] ids) {
+        try (ChunkReader reader = scheduler.getResidentChunk(chunkX, chunkZ)) {
+            if (reader == null) {
+                return false;
+            }
+
+            int blockX = chunkX << 4;
+            int blockZ = chunkZ << 4;
+            for (int qz = 0; qz < 4; qz++) {
+                int index = ((cz << 2) + qz) << PATCH_BITS;
+                for (int qx = 0; qx < 4; qx++) {
+                    Cell cell = reader.getCell(qx << 2, qz << 2);
+                    int biome = biomeProvider.getBiomeId(cell, blockX + (qx << 2), blockZ + (qz << 2));
+                    if (biome < 0 || biome > Short.MAX_VALUE) {
+                        return false;
+                    }
+                    ids[index + (cx << 2) + qx] = (short) biome;
+                }
+            }
+            return true;
+        }
+    }
+
+    private Patch setMissing(int slot, long key) {
+        patches.set(slot, new Patch(key, null, System.nanoTime() + RETRY_TIMEOUT));
+        return null;
+    }
+
+    public static BiomePatchCache create(TFBiomeProvider biomeProvider) {
+        boolean enabled = ConfigManager.PERFORMANCE.load().getBool(ENABLED_KEY, DEFAULT_ENABLED);
+        return new BiomePatchCache(biomeProvider, enabled);
+    }
+
+    private static class Patch {
+
+        private final long key;
+        private final short[] ids;
+        private final long retryTime;
+
+        private Patch(long key, short[] ids, long retryTime) {
+            this.key = key;
+            this.ids = ids;
+            this.retryTime = retryTime;
+        }
+    }
+}
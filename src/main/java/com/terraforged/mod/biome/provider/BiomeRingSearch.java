@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.biome.provider;
+
+import com.terraforged.engine.cell.Cell;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.biome.Biome;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+
+/**
+ * Finds the nearest biome position matching a predicate by testing square rings of increasing radius around the center.
+ *
+ * The first few rings are tested on the calling thread. After that, batches of rings (one per common pool worker) are
+ * tested concurrently and their results are checked in ring order, so the result is always the first match on the
+ * smallest matching ring - exactly what a sequential ring-by-ring search returns. Rings are visited row by row
+ * (z then x) from the negative corner, matching the vanilla search order.
+ */
+class BiomeRingSearch {
+
+    // Rings below this radius are cheaper to test than to hand off to another thread
+    private static final int PARALLEL_RADIUS = 16;
+
+    private final TFBiomeProvider provider;
+    private final Predicate<Biome> biomes;
+    private final int biomeCenterX;
+    private final int biomeCenterZ;
+    private final int y;
+
+    BiomeRingSearch(TFBiomeProvider provider, int biomeCenterX, int y, int biomeCenterZ, Predicate<Biome> biomes) {
+        this.provider = provider;
+        this.biomes = biomes;
+        this.biomeCenterX = biomeCenterX;
+        this.biomeCenterZ = biomeCenterZ;
+        this.y = y;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    BlockPos find(int biomeRadius, int increment) {
+        int r = 0;
+
+        Cell cell = new Cell();
+        for (; r < biomeRadius && r < PARALLEL_RADIUS; r += increment) {
+            BlockPos pos = searchRing(cell, r);
+            if (pos != null) {
+                return pos;
+            }
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ForkJoinTask<BlockPos>[] tasks = new ForkJoinTask[Math.max(1, pool.getParallelism())];
+        while (r < biomeRadius) {
+            int count = 0;
+            for (; count < tasks.length && r < biomeRadius; count++, r += increment) {
+                final int ring = r;
+                tasks[count] = pool.submit(() -> searchRing(new Cell(), ring));
+            }
+
+            BlockPos result = null;
+            for (int i = 0; i < count; i++) {
+                if (result != null) {
+                    // a nearer ring has matched so the remaining results aren't needed
+                    tasks[i].cancel(false);
+                    continue;
+                }
+                result = tasks[i].join();
+            }
+
+            if (result != null) {
+                return result;
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private BlockPos searchRing(Cell cell, int r) {
+        for (int dz = -r; dz <= r; dz++) {
+            // rows on the edge of the ring are tested in full, otherwise only the two ends
+            int stepX = Math.abs(dz) == r ? 1 : Math.max(1, r + r);
+
+            for (int dx = -r; dx <= r; dx += stepX) {
+                // getBiome(Cell,int,int) expects block coords, not biome coords
+                int x = (biomeCenterX + dx) << 2;
+                int z = (biomeCenterZ + dz) << 2;
+
+                Biome biome = provider.lookupBiome(cell, x, z, false);
+                if (biomes.test(biome)) {
+                    return new BlockPos(x, y, z);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.biome.provider;
+
+import com.terraforged.engine.cell.Cell;
+import net.minecraft.world.biome.Biome;
+
+import java.util.function.Predicate;
+
+/**
+ * Searches a square grid of biome positions for a biome whose predicate result equals the target, stopping at the
+ * first one found.
+ *
+ * Positions are visited coarse-to-fine: the corners and center first, then grids of progressively halving spacing,
+ * so that areas made up of several biomes are usually decided after a handful of lookups. Each position is only
+ * looked up once and consecutive lookups of the same biome reuse the previous predicate result.
+ */
+class BiomeWithinQuery {
+
+    private final TFBiomeProvider provider;
+    private final Predicate<Biome> predicate;
+    private final boolean target;
+    private final int minX;
+    private final int minZ;
+    private final int size;
+    private final boolean[] visited;
+    private final Cell cell = new Cell();
+
+    private Biome lastBiome = null;
+    private boolean lastResult = false;
+
+    BiomeWithinQuery(TFBiomeProvider provider, int minX, int minZ, int size, Predicate<Biome> predicate, boolean target) {
+        this.provider = provider;
+        this.predicate = predicate;
+        this.target = target;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.size = size;
+        this.visited = new boolean[size * size];
+    }
+
+    boolean find() {
+        int last = size - 1;
+        int mid = size >> 1;
+        if (visit(0, 0) || visit(last, 0) || visit(0, last) || visit(last, last) || visit(mid, mid)) {
+            return true;
+        }
+
+        for (int stride = Integer.highestOneBit(Math.max(1, last)); stride > 0; stride >>= 1) {
+            for (int j = 0; j < size; j += stride) {
+                for (int i = 0; i < size; i += stride) {
+                    if (visit(i, j)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean visit(int i, int j) {
+        int index = j * size + i;
+        if (visited[index]) {
+            return false;
+        }
+        visited[index] = true;
+
+        Biome biome = provider.lookupBiome(cell, minX + (i << 2), minZ + (j << 2), false);
+        if (biome != lastBiome) {
+            lastBiome = biome;
+            lastResult = predicate.test(biome);
+        }
+        return lastResult == target;
+    }
+}
@@ -94,23 +94,43 @@ public class TFBiomeProvider extends BiomeProvider {
 
     @Override
     public Set<Biome> getBiomesWithin(int centerX, int centerY, int centerZ, int radius) {
-        // search smaller radius to encourage more attempts to generate structures like mansions
-        radius = Math.max(8, NoiseUtil.round(biomeSearchModifier * radius));
+        radius = getSearchRadius(radius);
         int minX = centerX - radius;
         int minZ = centerZ - radius;
         int maxX = centerX + radius;
         int maxZ = centerZ + radius;
+        int width = ((maxX - minX) >> 2) + 1;
+        int length = ((maxZ - minZ) >> 2) + 1;
+        int[] ids = getBiomeIds(minX, minZ, width, length, 4, new int[width * length]);
+
         Set<Biome> set = Sets.newHashSet();
-        Cell cell = new Cell();
-        for (int z = minZ; z <= maxZ; z += 4) {
-            for (int x = minX; x <= maxX; x += 4) {
-                Biome biome = lookupBiome(cell, x, z, false);
-                set.add(biome);
+        int previous = BiomeMap.NULL_BIOME;
+        for (int id : ids) {
+            // neighbouring positions mostly share a biome
+            if (id != previous) {
+                set.add(getBiomeFromId(id));
+                previous = id;
             }
         }
         return set;
     }
 
+    /**
+     * Checks whether all of the biomes that getBiomesWithin would return for the same area match the predicate,
+     * stopping at the first biome that doesn't.
+     */
+    public boolean allBiomesWithin(int centerX, int centerZ, int radius, Predicate<Biome> predicate) {
+        return !findBiomeWithin(centerX, centerZ, radius, predicate, false);
+    }
+
+    /**
+     * Checks whether any of the biomes that getBiomesWithin would return for the same area match the predicate,
+     * stopping at the first biome that does.
+     */
+    public boolean anyBiomeWithin(int centerX, int centerZ, int radius, Predicate<Biome> predicate) {
+        return findBiomeWithin(centerX, centerZ, radius, predicate, true);
+    }
+
     @Override
     @Nullable
     public BlockPos findBiomeHorizontal(int centerX, int centerY, int centerZ, int radius, int increment, Predicate<Biome> biomes, Random random, boolean centerOutSearch) {
@@ -119,6 +139,11 @@ public class TFBiomeProvider extends BiomeProvider {
         int biomeCenterX = centerX >> 2;
         int biomeCenterZ = centerZ >> 2;
 
+        // the nearest match doesn't depend on the random so the rings can be searched concurrently
+        if (centerOutSearch) {
+            return new BiomeRingSearch(this, biomeCenterX, centerY, biomeCenterZ, biomes).find(biomeRadius, increment);
+        }
+
         Cell cell = new Cell();
         BlockPos.Mutable pos = null;
 
@@ -126,51 +151,50 @@ public class TFBiomeProvider extends BiomeProvider {
         // being selected as the result
         int count = 0;
 
-        // centerOutSearch iterates concentric rings around the center coordinates to find the closest matching position
-        // non-centerOut iterates the entire square around the center and returns a random matching position
-        int startRadius = centerOutSearch ? 0 : biomeRadius;
-
-        for (int r = startRadius; r < biomeRadius; r += increment) {
-            for (int dz = -r; dz <= r; dz++) {
-                boolean onRadiusZ = Math.abs(dz) == r;
-
-                for (int dx = -r; dx <= r; dx++) {
-                    if (centerOutSearch) {
-                        boolean onRadiusX = Math.abs(dx) == r;
-                        if (!onRadiusX && !onRadiusZ) {
-                            continue;
-                        }
-                    }
-
-                    int biomeX = biomeCenterX + dx;
-                    int biomeZ = biomeCenterZ + dz;
-
-                    // getBiome(Cell,int,int) expects block coords, not biome coords
-                    int x = biomeX << 2;
-                    int z = biomeZ << 2;
+        // iterates the entire square around the center and returns a random matching position
+        for (int dz = -biomeRadius; dz <= biomeRadius; dz += increment) {
+            for (int dx = -biomeRadius; dx <= biomeRadius; dx += increment) {
+                int biomeX = biomeCenterX + dx;
+                int biomeZ = biomeCenterZ + dz;
 
-                    Biome biome = lookupBiome(cell, x, z, false);
+                // getBiome(Cell,int,int) expects block coords, not biome coords
+                int x = biomeX << 2;
+                int z = biomeZ << 2;
 
-                    if (biomes.test(biome)) {
-                        if (centerOutSearch) {
-                            return new BlockPos(x, centerY, z);
-                        }
-
-                        if (pos == null) {
-                            pos = new BlockPos.Mutable(x, centerY, z);
-                        } else if (random.nextInt(count + 1) == 0) {
-                            // as the match count increases the chance of getting a zero reduces
-                            pos.set(x, centerY, z);
-                        }
+                Biome biome = lookupBiome(cell, x, z, false);
 
-                        count++;
+                if (biomes.test(biome)) {
+                    if (pos == null) {
+                        pos = new BlockPos.Mutable(x, centerY, z);
+                    } else if (random.nextInt(count + 1) == 0) {
+                        // as the match count increases the chance of getting a zero reduces
+                        pos.set(x, centerY, z);
                     }
+
+                    count++;
                 }
             }
         }
         return pos;
     }
 
+    /**
+     * Fills the ids array with the biome ids of a width x length grid of block positions, starting at (x, z) and spaced
+     * by step blocks, in row order (index = dz * width + dx). Ids can be converted with getBiomeFromId.
+     */
+    public int[] getBiomeIds(int x, int z, int width, int length, int step, int[] ids) {
+        Preconditions.checkArgument(step > 0, "Step must be positive: %s", step);
+        Preconditions.checkArgument(ids.length >= width * length, "Biome id array too small: %s < %s", ids.length, width * length);
+        try (Resource<Cell> resource = Cell.pooled()) {
+            biomeCache.getBiomes(resource.get().reset(), x, z, width, length, step, ids, false);
+        }
+        return ids;
+    }
+
+    public BiomeCache getBiomeCache() {
+        return biomeCache;
+    }
+
     public WorldLookup getWorldLookup() {
         return getResources().worldLookup;
     }
@@ -208,6 +232,17 @@ public class TFBiomeProvider extends BiomeProvider {
         return getBiomeFromId(biome);
     }
 
+    // Search smaller radius to encourage more attempts to generate structures like mansions
+    private int getSearchRadius(int radius) {
+        return Math.max(8, NoiseUtil.round(biomeSearchModifier * radius));
+    }
+
+    private boolean findBiomeWithin(int centerX, int centerZ, int radius, Predicate<Biome> predicate, boolean target) {
+        radius = getSearchRadius(radius);
+        int size = ((radius * 2) >> 2) + 1;
+        return new BiomeWithinQuery(this, centerX - radius, centerZ - radius, size, predicate, target).find();
+    }
+
     // Compute the biome id at a given block position
     protected int computeBiome(Cell cell, int x, int z, boolean load) {
         getWorldLookup().applyCell(cell, x, z, load);
@@ -215,14 +250,14 @@ public class TFBiomeProvider extends BiomeProvider {
     }
 
     // Get the Biome instance from the biome id
-    private Biome getBiomeFromId(int biome) {
+    public Biome getBiomeFromId(int biome) {
         Biome result = context.biomeContext.biomes.get(biome);
         Preconditions.checkNotNull(result, "NULL BIOME D:");
         return result;
     }
 
     // Determine the biome id from the cell
-    private int getBiomeId(Cell cell, int x, int z) {
+    int getBiomeId(Cell cell, int x, int z) {
         BiomeResources resources = this.getResources();
         int biome = resources.biomemap.provideBiome(cell, context.levels);
         if (resources.modifierManager.hasModifiers(cell, context.levels)) {
@@ -26,7 +26,11 @@ package com.terraforged.mod.chunk;
 
 import com.terraforged.engine.tile.gen.TileCache;
 import com.terraforged.mod.api.biome.surface.SurfaceManager;
+import com.terraforged.mod.api.chunk.column.ChunkDecorator;
 import com.terraforged.mod.api.chunk.column.ColumnDecorator;
+import com.terraforged.mod.chunk.tile.TileMemoryPolicy;
+import com.terraforged.mod.chunk.tile.TileScheduler;
+import com.terraforged.mod.config.PerfDefaults;
 import com.terraforged.mod.feature.BlockDataManager;
 import com.terraforged.mod.featuremanager.FeatureManager;
 import com.terraforged.mod.featuremanager.data.DataManager;
@@ -41,12 +45,15 @@ public class GeneratorResources {
     public static final int SEED_OFFSET = 746382634;
 
     final TileCache tileCache;
+    final TileScheduler tileScheduler;
     final FeatureManager featureManager;
     final BlockDataManager blockDataManager;
     final GeoManager geologyManager;
     final SurfaceManager surfaceManager;
     final List<ColumnDecorator> surfaceDecorators;
     final List<ColumnDecorator> postProcessors;
+    final List<ChunkDecorator> chunkSurfaceDecorators;
+    final List<ChunkDecorator> chunkPostProcessors;
 
     public GeneratorResources(TFChunkGenerator generator, TerraContext context) {
         this.surfaceManager = SetupFactory.createSurfaceManager(context);
@@ -63,8 +70,16 @@ public class GeneratorResources {
 
         SetupHooks.setup(context.materials.get().layerManager, context);
         SetupHooks.setup(surfaceDecorators, postProcessors, context);
+        this.chunkSurfaceDecorators = ChunkDecorator.of(surfaceDecorators);
+        this.chunkPostProcessors = ChunkDecorator.of(postProcessors);
 
         this.tileCache = context.cache.get();
+        this.tileScheduler = new TileScheduler(
+                tileCache,
+                TileMemoryPolicy.create(tileCache),
+                PerfDefaults.getTileQueueLimit(),
+                PerfDefaults.getTilePrefetchLimit()
+        );
     }
 
     public static Function<TerraContext, GeneratorResources> factory(TFChunkGenerator generator) {
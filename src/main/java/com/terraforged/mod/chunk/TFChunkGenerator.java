@@ -33,10 +33,9 @@ import com.terraforged.engine.concurrent.cache.CacheManager;
 import com.terraforged.engine.concurrent.task.LazySupplier;
 import com.terraforged.engine.tile.Tile;
 import com.terraforged.engine.tile.chunk.ChunkReader;
-import com.terraforged.engine.tile.gen.TileCache;
 import com.terraforged.mod.Log;
 import com.terraforged.mod.api.biome.surface.SurfaceManager;
-import com.terraforged.mod.api.chunk.column.BlockColumn;
+import com.terraforged.mod.api.chunk.column.ChunkDecorator;
 import com.terraforged.mod.api.chunk.column.ColumnDecorator;
 import com.terraforged.mod.api.material.layer.LayerManager;
 import com.terraforged.mod.biome.provider.TFBiomeProvider;
@@ -50,6 +49,7 @@ import com.terraforged.mod.chunk.generator.StrongholdGenerator;
 import com.terraforged.mod.chunk.generator.StructureGenerator;
 import com.terraforged.mod.chunk.generator.SurfaceGenerator;
 import com.terraforged.mod.chunk.generator.TerrainCarver;
+import com.terraforged.mod.chunk.tile.TileScheduler;
 import com.terraforged.mod.feature.BlockDataManager;
 import com.terraforged.mod.featuremanager.FeatureManager;
 import com.terraforged.mod.featuremanager.util.codec.Codecs;
@@ -63,7 +63,6 @@ import com.terraforged.mod.profiler.crash.CrashHandler;
 import com.terraforged.mod.profiler.crash.WorldGenException;
 import com.terraforged.mod.structure.StructureLocator;
 import com.terraforged.mod.util.DataUtils;
-import net.minecraft.block.BlockState;
 import net.minecraft.entity.EntityClassification;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
@@ -130,6 +129,7 @@ public class TFChunkGenerator extends ChunkGenerator {
         this.structureGenerator = new StructureGenerator(this);
         this.strongholdGenerator = new StrongholdGenerator(seed, biomeProvider);
         this.resources = LazySupplier.factory(context.split(GeneratorResources.SEED_OFFSET), GeneratorResources.factory(this));
+        this.biomeProvider.getBiomeCache().getPatchCache().setTileSource(this::getTileScheduler);
         Profiler.reset();
         Log.info("Created TerraForged chunk-generator with settings {}", DataUtils.toJson(context.terraSettings));
     }
@@ -172,6 +172,10 @@ public class TFChunkGenerator extends ChunkGenerator {
         return StructureLocator.find(pos, radius, flag, structure, settings, world, this);
     }
 
+    public final void prepareStrongholds() {
+        strongholdGenerator.prepareStrongholds();
+    }
+
     @Override // isStrongholdChunk
     public final boolean hasStronghold(ChunkPos pos) {
         return strongholdGenerator.isStrongholdChunk(pos);
@@ -179,7 +183,7 @@ public class TFChunkGenerator extends ChunkGenerator {
 
     @Override
     public final void createStructures(DynamicRegistries registries, StructureManager structures, IChunk chunk, TemplateManager templates, long seed) {
-        try (Section section = Profiler.STRUCTURE_STARTS.punchIn()) {
+        try (Section section = Profiler.STRUCTURE_STARTS.punchIn(chunk.getPos().x, chunk.getPos().z)) {
             structureGenerator.generateStructureStarts(chunk, registries, structures, templates);
         } catch (Throwable t) {
             CrashHandler.handle(chunk, this, new WorldGenException(Profiler.STRUCTURE_STARTS, t));
@@ -188,7 +192,7 @@ public class TFChunkGenerator extends ChunkGenerator {
 
     @Override
     public final void createReferences(ISeedReader world, StructureManager structures, IChunk chunk) {
-        try (Section section = Profiler.STRUCTURE_REFS.punchIn()) {
+        try (Section section = Profiler.STRUCTURE_REFS.punchIn(chunk.getPos().x, chunk.getPos().z)) {
             structureGenerator.generateStructureReferences(world, chunk, structures);
         } catch (Throwable t) {
             CrashHandler.handle(chunk, this, new WorldGenException(Profiler.STRUCTURE_REFS, t));
@@ -197,7 +201,7 @@ public class TFChunkGenerator extends ChunkGenerator {
 
     @Override
     public final void createBiomes(Registry<Biome> registry, IChunk chunk) {
-        try (Section section = Profiler.BIOMES.punchIn()) {
+        try (Section section = Profiler.BIOMES.punchIn(chunk.getPos().x, chunk.getPos().z)) {
             biomeGenerator.generateBiomes(chunk);
         } catch (Throwable t) {
             CrashHandler.handle(chunk, this, new WorldGenException(Profiler.BIOMES, t));
@@ -206,7 +210,7 @@ public class TFChunkGenerator extends ChunkGenerator {
 
     @Override
     public final void fillFromNoise(IWorld world, StructureManager structures, IChunk chunk) {
-        try (Section section = Profiler.TERRAIN.punchIn()) {
+        try (Section section = Profiler.TERRAIN.punchIn(chunk.getPos().x, chunk.getPos().z)) {
             terrainGenerator.generateTerrain(world, chunk, structures);
         } catch (Throwable t) {
             CrashHandler.handle(chunk, this, new WorldGenException(Profiler.TERRAIN, t));
@@ -215,7 +219,7 @@ public class TFChunkGenerator extends ChunkGenerator {
 
     @Override
     public final void buildSurfaceAndBedrock(WorldGenRegion region, IChunk chunk) {
-        try (Section section = Profiler.SURFACE.punchIn()) {
+        try (Section section = Profiler.SURFACE.punchIn(chunk.getPos().x, chunk.getPos().z)) {
             surfaceGenerator.generateSurface(region, chunk);
         } catch (Throwable t) {
             CrashHandler.handle(chunk, this, new WorldGenException(Profiler.SURFACE, t));
@@ -224,7 +228,7 @@ public class TFChunkGenerator extends ChunkGenerator {
 
     @Override
     public final void applyCarvers(long seed, BiomeManager biomes, IChunk chunk, GenerationStage.Carving carver) {
-        try (Section section = Profiler.get(carver).punchIn()) {
+        try (Section section = Profiler.get(carver).punchIn(chunk.getPos().x, chunk.getPos().z)) {
             terrainCarver.carveTerrain(biomes, chunk, carver);
         } catch (Throwable t) {
             CrashHandler.handle(chunk, this, new WorldGenException(Profiler.AIR_CARVERS, t));
@@ -233,7 +237,7 @@ public class TFChunkGenerator extends ChunkGenerator {
 
     @Override
     public final void applyBiomeDecoration(WorldGenRegion region, StructureManager structures) {
-        try (Section section = Profiler.DECORATION.punchIn()) {
+        try (Section section = Profiler.DECORATION.punchIn(region.getCenterX(), region.getCenterZ())) {
             featureGenerator.generateFeatures(region, structures);
         } catch (Throwable t) {
             CrashHandler.handle(region, this, new WorldGenException(Profiler.DECORATION, t));
@@ -242,7 +246,7 @@ public class TFChunkGenerator extends ChunkGenerator {
 
     @Override
     public final void spawnOriginalMobs(WorldGenRegion region) {
-        try (Section section = Profiler.MOB_SPAWNS.punchIn()) {
+        try (Section section = Profiler.MOB_SPAWNS.punchIn(region.getCenterX(), region.getCenterZ())) {
             mobGenerator.generateMobs(region);
         } catch (Throwable t) {
             CrashHandler.handle(region, this, new WorldGenException(Profiler.MOB_SPAWNS, t));
@@ -260,10 +264,7 @@ public class TFChunkGenerator extends ChunkGenerator {
      */
     @Override
     public final int getBaseHeight(int x, int z, Heightmap.Type type) {
-        final Cell cell = localCellResource.get().reset();
-        biomeProvider.getWorldLookup().applyCell(cell, x, z);
-
-        final int level = getContext().levels.scale(cell.value) + 1;
+        final int level = getContext().levels.scale(getBaseValue(x, z)) + 1;
         if (type == Heightmap.Type.OCEAN_FLOOR || type == Heightmap.Type.OCEAN_FLOOR_WG) {
             return level;
         }
@@ -275,19 +276,16 @@ public class TFChunkGenerator extends ChunkGenerator {
     public final IBlockReader getBaseColumn(int x, int z) {
         final int height = getBaseHeight(x, z, Heightmap.Type.OCEAN_FLOOR_WG);
         final int surface = Math.max(height, getSeaLevel() + 1);
+        final DimensionSettings dimension = settings.get();
+        return ColumnResource.get().baseColumn.set(height, surface, dimension.getDefaultBlock(), dimension.getDefaultFluid());
+    }
 
-        BlockColumn column = ColumnResource.get().column.withCapacity(surface);
-        BlockState solid = settings.get().getDefaultBlock();
-        for (int y = 0; y < height; y++) {
-            column.set(y, solid);
-        }
-
-        BlockState fluid = settings.get().getDefaultFluid();
-        for (int y = height; y < surface; y++) {
-            column.set(y, fluid);
-        }
-
-        return column;
+    private float getBaseValue(int x, int z) {
+        // the stored (post-erosion) heights are deliberately not used here so that structure placement doesn't
+        // depend on which chunks happen to have been generated already
+        final Cell cell = localCellResource.get().reset();
+        biomeProvider.getWorldLookup().applyCell(cell, x, z);
+        return cell.value;
     }
 
     @Override
@@ -351,17 +349,28 @@ public class TFChunkGenerator extends ChunkGenerator {
         return resources.get().postProcessors;
     }
 
+    public final List<ChunkDecorator> getChunkSurfaceDecorators() {
+        return resources.get().chunkSurfaceDecorators;
+    }
+
+    public final List<ChunkDecorator> getChunkPostProcessors() {
+        return resources.get().chunkPostProcessors;
+    }
+
     public final void queueChunk(ChunkPos pos) {
         queueChunk(pos.x, pos.z);
     }
 
     public final void queueChunk(int chunkX, int chunkZ) {
-        TileCache tileCache = resources.get().tileCache;
-        if (tileCache.supportsQueuing()) {
-            int rx = tileCache.chunkToRegion(chunkX);
-            int rz = tileCache.chunkToRegion(chunkZ);
-            tileCache.queueRegion(rx, rz);
-        }
+        resources.get().tileScheduler.queueChunk(chunkX, chunkZ);
+    }
+
+    public final void completeChunk(int chunkX, int chunkZ) {
+        resources.get().tileScheduler.completeChunk(chunkX, chunkZ);
+    }
+
+    public final TileScheduler getTileScheduler() {
+        return resources.get().tileScheduler;
     }
 
     public final Tile getTile(ChunkPos pos) {
@@ -369,10 +378,7 @@ public class TFChunkGenerator extends ChunkGenerator {
     }
 
     public final Tile getTile(int chunkX, int chunkZ) {
-        TileCache tileCache = resources.get().tileCache;
-        int rx = tileCache.chunkToRegion(chunkX);
-        int rz = tileCache.chunkToRegion(chunkZ);
-        return tileCache.getTile(rx, rz);
+        return resources.get().tileScheduler.getTile(chunkX, chunkZ);
     }
 
     public final ChunkReader getChunkReader(ChunkPos pos) {
@@ -380,7 +386,7 @@ public class TFChunkGenerator extends ChunkGenerator {
     }
 
     public final ChunkReader getChunkReader(int chunkX, int chunkZ) {
-        return resources.get().tileCache.getChunk(chunkX, chunkZ);
+        return resources.get().tileScheduler.getChunk(chunkX, chunkZ);
     }
 
     public static ChunkReader getChunk(IWorld world, ChunkGenerator generator) {
@@ -39,7 +39,9 @@ import com.terraforged.mod.api.chunk.column.DecoratorContext;
 import com.terraforged.mod.biome.TFBiomeContainer;
 import com.terraforged.mod.biome.context.TFBiomeContext;
 import com.terraforged.mod.chunk.settings.TerraSettings;
+import com.terraforged.mod.chunk.tile.TileStore;
 import com.terraforged.mod.config.PerfDefaults;
+import com.terraforged.mod.config.PerfTuner;
 import com.terraforged.mod.material.Materials;
 import net.minecraft.block.BlockState;
 import net.minecraft.world.chunk.IChunk;
@@ -50,6 +52,7 @@ public class TerraContext extends GeneratorContext {
     public final LazySupplier<Heightmap> heightmap;
     public final TerraSettings terraSettings;
     public final LazySupplier<Materials> materials = LazySupplier.supplied(this::getTerraSettings, Materials::create);
+    public final LazySupplier<TileStore> tileStore;
 
     public final TFBiomeContext biomeContext;
 
@@ -59,6 +62,7 @@ public class TerraContext extends GeneratorContext {
         this.terraSettings = other.terraSettings;
         this.biomeContext = biomeContext;
         this.heightmap = worldGenerator.then(WorldGeneratorFactory::getHeightmap);
+        this.tileStore = LazySupplier.supplied(() -> this, TileStore::create);
     }
 
     public TerraContext(TerraSettings settings, TFBiomeContext biomeContext) {
@@ -67,6 +71,7 @@ public class TerraContext extends GeneratorContext {
         this.biomeContext = biomeContext;
         this.terraSettings = settings;
         this.heightmap = worldGenerator.then(WorldGeneratorFactory::getHeightmap);
+        this.tileStore = LazySupplier.supplied(() -> this, TileStore::create);
     }
 
     protected TerraContext(TerraContext other, int seedOffset) {
@@ -75,6 +80,7 @@ public class TerraContext extends GeneratorContext {
         heightmap = other.heightmap;
         terraSettings = other.terraSettings;
         biomeContext = other.biomeContext;
+        tileStore = other.tileStore;
     }
 
     @Override
@@ -107,6 +113,13 @@ public class TerraContext extends GeneratorContext {
         int tileBorder = PerfDefaults.getTileBorderSize(factory.getFilters().getSettings());
         int batchCount = Math.min(PerfDefaults.MAX_BATCH_COUNT, Math.max(1, config.getInt("batch_count")));
         int threadCount = Math.min(PerfDefaults.MAX_THREAD_COUNT, Math.max(1, config.getInt("thread_count")));
+        if (config.getOrElse(PerfTuner.AUTO_TUNE_KEY, PerfTuner.DEFAULT_AUTO_TUNE)) {
+            int[] tuned = new PerfTuner(factory, tileBorder, threadCount, batching).getSettings(batchCount);
+            if (tuned != null) {
+                tileSize = Math.min(PerfDefaults.MAX_TILE_SIZE, Math.max(2, tuned[0]));
+                batchCount = Math.min(PerfDefaults.MAX_BATCH_COUNT, Math.max(1, tuned[1]));
+            }
+        }
         return TileGenerator.builder()
                 .pool(ThreadPools.create(threadCount, batching))
                 .size(tileSize, tileBorder)
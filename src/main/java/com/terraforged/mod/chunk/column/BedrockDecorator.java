@@ -24,6 +24,8 @@
 
 package com.terraforged.mod.chunk.column;
 
+import com.terraforged.mod.api.chunk.column.ChunkColumns;
+import com.terraforged.mod.api.chunk.column.ChunkDecorator;
 import com.terraforged.mod.api.chunk.column.ColumnDecorator;
 import com.terraforged.mod.api.chunk.column.DecoratorContext;
 import com.terraforged.mod.api.material.state.States;
@@ -34,27 +36,67 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.chunk.IChunk;
 import net.minecraftforge.registries.ForgeRegistries;
 
-import java.util.concurrent.ThreadLocalRandom;
+public class BedrockDecorator implements ColumnDecorator, ChunkDecorator {
 
-public class BedrockDecorator implements ColumnDecorator {
+    private static final int SEED_OFFSET = 0x3EDB0C4;
+    private static final ThreadLocal<int[]> DEPTHS = ThreadLocal.withInitial(() -> new int[ChunkColumns.SIZE]);
 
     private final int minDepth;
     private final int variance;
     private final BlockState material;
+    private final int seed;
 
     public BedrockDecorator(TerraContext context) {
         minDepth = context.terraSettings.dimensions.bedrockLayer.minDepth;
         variance = context.terraSettings.dimensions.bedrockLayer.variance;
         material = getState(context.terraSettings.dimensions.bedrockLayer.material);
+        seed = Long.hashCode(context.worldSeed) ^ SEED_OFFSET;
     }
 
     @Override
     public void decorate(IChunk chunk, DecoratorContext context, int x, int y, int z) {
+        fillDown(context, chunk, x, z, getDepth(x, z), -1, material);
+    }
+
+    @Override
+    public void decorate(IChunk chunk, DecoratorContext context, ChunkColumns columns) {
+        int[] depths = DEPTHS.get();
+
+        // precompute the column depths so the fill below can run layer by layer
+        int maxDepth = -1;
+        for (int dz = 0; dz < 16; dz++) {
+            for (int dx = 0; dx < 16; dx++) {
+                int depth = getDepth(context.blockX + dx, context.blockZ + dz);
+                depths[ChunkColumns.indexOf(dx, dz)] = depth;
+                maxDepth = Math.max(maxDepth, depth);
+            }
+        }
+
+        // fill bottom-up so consecutive writes land in the same chunk section
+        for (int y = 0; y <= maxDepth; y++) {
+            for (int dz = 0; dz < 16; dz++) {
+                for (int dx = 0; dx < 16; dx++) {
+                    if (y <= depths[ChunkColumns.indexOf(dx, dz)]) {
+                        chunk.setBlockState(context.pos.set(context.blockX + dx, y, context.blockZ + dz), material, false);
+                    }
+                }
+            }
+        }
+    }
+
+    private int getDepth(int x, int z) {
         if (variance <= 0) {
-            fillDown(context, chunk, x, z, minDepth - 1, -1, material);
-        } else {
-            fillDown(context, chunk, x, z, minDepth + ThreadLocalRandom.current().nextInt(variance), -1, material);
+            return minDepth - 1;
         }
+        return minDepth + (hash(seed, x, z) % variance);
+    }
+
+    private static int hash(int seed, int x, int z) {
+        int hash = seed ^ (x * 0x27D4EB2D) ^ (z * 0x165667B1);
+        hash ^= hash >>> 15;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash & Integer.MAX_VALUE;
     }
 
     private static BlockState getState(String name) {
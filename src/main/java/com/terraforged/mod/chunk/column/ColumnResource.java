@@ -25,7 +25,9 @@
 package com.terraforged.mod.chunk.column;
 
 import com.terraforged.engine.world.geology.DepthBuffer;
+import com.terraforged.mod.api.chunk.column.BaseColumn;
 import com.terraforged.mod.api.chunk.column.BlockColumn;
+import com.terraforged.mod.api.chunk.column.ChunkColumns;
 
 public class ColumnResource {
 
@@ -33,6 +35,8 @@ public class ColumnResource {
 
     public final DepthBuffer depthBuffer = new DepthBuffer();
     public final BlockColumn column = new BlockColumn();
+    public final BaseColumn baseColumn = new BaseColumn();
+    public final ChunkColumns columns = new ChunkColumns();
 
     public static ColumnResource get() {
         return LOCAL.get();
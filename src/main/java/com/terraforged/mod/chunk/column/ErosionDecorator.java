@@ -24,9 +24,12 @@
 
 package com.terraforged.mod.chunk.column;
 
+import com.terraforged.engine.cell.Cell;
 import com.terraforged.engine.concurrent.task.LazySupplier;
 import com.terraforged.engine.world.terrain.TerrainType;
 import com.terraforged.mod.api.biome.surface.SurfaceChunk;
+import com.terraforged.mod.api.chunk.column.ChunkColumns;
+import com.terraforged.mod.api.chunk.column.ChunkDecorator;
 import com.terraforged.mod.api.chunk.column.ColumnDecorator;
 import com.terraforged.mod.api.chunk.column.DecoratorContext;
 import com.terraforged.mod.api.material.state.States;
@@ -36,11 +39,12 @@ import com.terraforged.mod.material.Materials;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.material.Material;
+import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.IChunk;
 import net.minecraft.world.gen.Heightmap;
 import net.minecraft.world.gen.surfacebuilders.ISurfaceBuilderConfig;
 
-public class ErosionDecorator implements ColumnDecorator {
+public class ErosionDecorator implements ColumnDecorator, ChunkDecorator {
 
     private static final int ROCK_VAR = 30;
     private static final int ROCK_MIN = 140;
@@ -80,27 +84,46 @@ public class ErosionDecorator implements ColumnDecorator {
 
     }
 
+    @Override
+    public void decorate(IChunk chunk, DecoratorContext context, ChunkColumns columns) {
+
+    }
+
     @Override
     public void decorate(SurfaceChunk buffer, DecoratorContext context, int x, int y, int z) {
-        if (context.cell.value < minY || context.cell.terrain.isRiver() || context.cell.terrain.isWetland()) {
-            return;
+        IChunk chunk = plainStone ? buffer : buffer.getDelegate();
+        decorateColumn(chunk, context, materials.get(), context.cell, context.biome, x, z);
+    }
+
+    @Override
+    public void decorate(SurfaceChunk buffer, DecoratorContext context, ChunkColumns columns) {
+        IChunk chunk = plainStone ? buffer : buffer.getDelegate();
+        Materials materials = this.materials.get();
+        for (int dz = 0; dz < 16; dz++) {
+            for (int dx = 0; dx < 16; dx++) {
+                int index = ChunkColumns.indexOf(dx, dz);
+                decorateColumn(chunk, context, materials, columns.cells[index], columns.biomes[index], context.blockX + dx, context.blockZ + dz);
+            }
         }
+    }
 
-        if (context.cell.terrain == TerrainType.VOLCANO_PIPE) {
+    private void decorateColumn(IChunk chunk, DecoratorContext context, Materials materials, Cell cell, Biome biome, int x, int z) {
+        if (cell.value < minY || cell.terrain.isRiver() || cell.terrain.isWetland()) {
             return;
         }
 
-        IChunk chunk = plainStone ? buffer : buffer.getDelegate();
+        if (cell.terrain == TerrainType.VOLCANO_PIPE) {
+            return;
+        }
 
-        y = chunk.getHeight(Heightmap.Type.WORLD_SURFACE_WG, x, z);
+        int y = chunk.getHeight(Heightmap.Type.WORLD_SURFACE_WG, x, z);
 
-        ISurfaceBuilderConfig config = BiomeHelper.getSurface(context.biome);
+        ISurfaceBuilderConfig config = BiomeHelper.getSurface(biome);
         BlockState top = config.getTopMaterial();
         BlockState middle = config.getUnderMaterial();
-        Materials materials = this.materials.get();
 
         if (materials.isErodible(top.getBlock())) {
-            BlockState material = getMaterial(x, z, context, top, middle);
+            BlockState material = getMaterial(x, z, context, cell, top, middle);
             if (material != top) {
                 if (materials.isStone(material.getBlock())) {
                     erodeRock(context, chunk, materials, x, y, z);
@@ -109,7 +132,7 @@ public class ErosionDecorator implements ColumnDecorator {
                     fillDownSolid(context, chunk, x, z, y, y - 4, material);
                 }
             }
-            placeScree(chunk, context, x, y, z);
+            placeScree(chunk, context, cell, x, y, z);
         }
     }
 
@@ -133,13 +156,13 @@ public class ErosionDecorator implements ColumnDecorator {
         }
     }
 
-    protected void placeScree(IChunk chunk, DecoratorContext context, int x, int y, int z) {
-        float steepness = context.cell.gradient + context.climate.getRand().getValue(x, z, seed2) * SLOPE_MODIFIER;
+    protected void placeScree(IChunk chunk, DecoratorContext context, Cell cell, int x, int y, int z) {
+        float steepness = cell.gradient + context.climate.getRand().getValue(x, z, seed2) * SLOPE_MODIFIER;
         if (steepness < SCREE_STEEPNESS) {
             return;
         }
 
-        float sediment = context.cell.sediment * SEDIMENT_MODIFIER;
+        float sediment = cell.sediment * SEDIMENT_MODIFIER;
         float noise = context.climate.getRand().getValue(x, z, seed3) * SEDIMENT_NOISE;
         if (sediment + noise > SCREE_VALUE) {
             fillDownSolid(context, chunk, x, z, y, y - 2, States.GRAVEL.get());
@@ -154,9 +177,9 @@ public class ErosionDecorator implements ColumnDecorator {
         return steepness > DIRT_STEEPNESS && height > ColumnDecorator.getNoise(x, z, seed2, DIRT_VAR, DIRT_MIN);
     }
 
-    private BlockState getMaterial(float x, float z, DecoratorContext context, BlockState top, BlockState middle) {
-        float height = context.cell.value + context.climate.getRand().getValue(x, z, seed1) * HEIGHT_MODIFIER;
-        float steepness = context.cell.gradient + context.climate.getRand().getValue(x, z, seed2) * SLOPE_MODIFIER;
+    private BlockState getMaterial(float x, float z, DecoratorContext context, Cell cell, BlockState top, BlockState middle) {
+        float height = cell.value + context.climate.getRand().getValue(x, z, seed1) * HEIGHT_MODIFIER;
+        float steepness = cell.gradient + context.climate.getRand().getValue(x, z, seed2) * SLOPE_MODIFIER;
 
         if (steepness > ROCK_STEEPNESS || height > ColumnDecorator.getNoise(x, z, seed1, ROCK_VAR, ROCK_MIN)) {
             return rock(middle);
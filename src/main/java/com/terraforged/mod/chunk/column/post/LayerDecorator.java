@@ -27,6 +27,8 @@ package com.terraforged.mod.chunk.column.post;
 import com.terraforged.engine.cell.Cell;
 import com.terraforged.engine.concurrent.task.LazySupplier;
 import com.terraforged.engine.world.heightmap.Levels;
+import com.terraforged.mod.api.chunk.column.ChunkColumns;
+import com.terraforged.mod.api.chunk.column.ChunkDecorator;
 import com.terraforged.mod.api.chunk.column.ColumnDecorator;
 import com.terraforged.mod.api.chunk.column.DecoratorContext;
 import com.terraforged.mod.api.material.layer.LayerManager;
@@ -38,7 +40,7 @@ import net.minecraft.block.SpreadableSnowyDirtBlock;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.chunk.IChunk;
 
-public class LayerDecorator implements ColumnDecorator {
+public class LayerDecorator implements ColumnDecorator, ChunkDecorator {
 
     private final LazySupplier<LayerManager> layerManager;
 
@@ -48,6 +50,23 @@ public class LayerDecorator implements ColumnDecorator {
 
     @Override
     public void decorate(IChunk chunk, DecoratorContext context, int x, int y, int z) {
+        decorateColumn(chunk, context, layerManager.get(), context.cell, x, y, z);
+    }
+
+    @Override
+    public void decorate(IChunk chunk, DecoratorContext context, ChunkColumns columns) {
+        LayerManager layerManager = this.layerManager.get();
+        for (int dz = 0; dz < 16; dz++) {
+            for (int dx = 0; dx < 16; dx++) {
+                int index = ChunkColumns.indexOf(dx, dz);
+                int x = context.blockX + dx;
+                int z = context.blockZ + dz;
+                decorateColumn(chunk, context, layerManager, columns.cells[index], x, columns.heights[index], z);
+            }
+        }
+    }
+
+    private void decorateColumn(IChunk chunk, DecoratorContext context, LayerManager layerManager, Cell cell, int x, int y, int z) {
         context.pos.set(x, y + 1, z);
 
         BlockState state = chunk.getBlockState(context.pos);
@@ -59,12 +78,12 @@ public class LayerDecorator implements ColumnDecorator {
             }
         }
 
-        LayerMaterial material = layerManager.get().getMaterial(state.getBlock());
+        LayerMaterial material = layerManager.getMaterial(state.getBlock());
         if (material == null) {
             return;
         }
 
-        setLayer(chunk, context.pos, material, context.cell, context.levels, 0F);
+        setLayer(chunk, context.pos, material, cell, context.levels, 0F);
     }
 
     private void setLayer(IChunk chunk, BlockPos pos, LayerMaterial material, Cell cell, Levels levels, float min) {
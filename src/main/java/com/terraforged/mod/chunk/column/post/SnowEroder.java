@@ -24,7 +24,9 @@
 
 package com.terraforged.mod.chunk.column.post;
 
+import com.terraforged.engine.cell.Cell;
 import com.terraforged.engine.world.terrain.TerrainType;
+import com.terraforged.mod.api.chunk.column.ChunkColumns;
 import com.terraforged.mod.api.chunk.column.ColumnDecorator;
 import com.terraforged.mod.api.chunk.column.DecoratorContext;
 import com.terraforged.mod.chunk.TerraContext;
@@ -34,6 +36,7 @@ import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.GrassBlock;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.IChunk;
 import net.minecraft.world.gen.Heightmap;
 
@@ -59,6 +62,22 @@ public class SnowEroder extends ErosionDecorator {
 
     @Override
     public void decorate(IChunk chunk, DecoratorContext context, int x, int y, int z) {
+        erodeColumn(chunk, context, context.cell, context.biome, x, y, z);
+    }
+
+    @Override
+    public void decorate(IChunk chunk, DecoratorContext context, ChunkColumns columns) {
+        for (int dz = 0; dz < 16; dz++) {
+            for (int dx = 0; dx < 16; dx++) {
+                int index = ChunkColumns.indexOf(dx, dz);
+                int x = context.blockX + dx;
+                int z = context.blockZ + dz;
+                erodeColumn(chunk, context, columns.cells[index], columns.biomes[index], x, columns.heights[index], z);
+            }
+        }
+    }
+
+    private void erodeColumn(IChunk chunk, DecoratorContext context, Cell cell, Biome biome, int x, int y, int z) {
         int surface = chunk.getHeight(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, x, z);
         if (y - surface > 0) {
             if (y - surface > 4) {
@@ -67,13 +86,13 @@ public class SnowEroder extends ErosionDecorator {
             y = surface;
         }
 
-        if (context.biome.getTemperature(context.pos.set(x, y, z)) <= 0.25) {
+        if (biome.getTemperature(context.pos.set(x, y, z)) <= 0.25) {
             float var = -ColumnDecorator.getNoise(x, z, seed1, 16, 0);
             float hNoise = rand.getValue(x, z, seed2) * HEIGHT_MODIFIER;
             float sNoise = rand.getValue(x, z, seed3) * SLOPE_MODIFIER;
-            float vModifier = context.cell.terrain == TerrainType.VOLCANO ? 0.15F : 0F;
-            float height = context.cell.value + var + hNoise + vModifier;
-            float steepness = context.cell.gradient + var + sNoise + vModifier;
+            float vModifier = cell.terrain == TerrainType.VOLCANO ? 0.15F : 0F;
+            float height = cell.value + var + hNoise + vModifier;
+            float steepness = cell.gradient + var + sNoise + vModifier;
             if (snowErosion(x, z, steepness, height)) {
                 Predicate<BlockState> predicate = Heightmap.Type.MOTION_BLOCKING.isOpaque();
                 for (int dy = 2; dy > 0; dy--) {
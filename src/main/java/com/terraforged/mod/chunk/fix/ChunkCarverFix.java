@@ -38,13 +38,19 @@ import java.util.BitSet;
 
 public class ChunkCarverFix extends ChunkDelegate {
 
-    private final int maskDepth;
-    private final Materials materials;
+    private int maskDepth;
+    private Materials materials;
 
     public ChunkCarverFix(IChunk chunk, Materials materials, boolean nearStructure, boolean nearRiver) {
         super(chunk);
+        init(chunk, materials, nearStructure, nearRiver);
+    }
+
+    public ChunkCarverFix init(IChunk chunk, Materials materials, boolean nearStructure, boolean nearRiver) {
+        this.delegate = chunk;
         this.materials = materials;
         this.maskDepth = nearRiver ? 15 : nearStructure ? 5 : -1;
+        return this;
     }
 
     public BitSet getCarvingMask(GenerationStage.Carving type) {
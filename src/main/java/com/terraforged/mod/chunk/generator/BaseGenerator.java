@@ -30,6 +30,8 @@ import com.terraforged.engine.world.WorldGeneratorFactory;
 import com.terraforged.engine.world.climate.Climate;
 import com.terraforged.engine.world.heightmap.Levels;
 import com.terraforged.mod.Log;
+import com.terraforged.mod.api.chunk.column.ChunkColumns;
+import com.terraforged.mod.api.chunk.column.ChunkDecorator;
 import com.terraforged.mod.api.chunk.column.ColumnDecorator;
 import com.terraforged.mod.api.chunk.column.DecoratorContext;
 import com.terraforged.mod.biome.TFBiomeContainer;
@@ -37,7 +39,8 @@ import com.terraforged.mod.chunk.TFChunkGenerator;
 import com.terraforged.mod.chunk.column.BaseDecorator;
 import com.terraforged.mod.chunk.column.BaseGeoDecorator;
 import com.terraforged.mod.chunk.column.BedrockDecorator;
-import com.terraforged.mod.chunk.util.FastChunk;
+import com.terraforged.mod.chunk.column.ColumnResource;
+import com.terraforged.mod.chunk.util.BulkChunk;
 import com.terraforged.mod.structure.StructureTerrain;
 import net.minecraft.world.IWorld;
 import net.minecraft.world.chunk.IChunk;
@@ -47,8 +50,8 @@ public class BaseGenerator implements Generator.Terrain {
 
     private final Levels levels;
     private final TFChunkGenerator generator;
-    private final ColumnDecorator baseDecorator;
-    private final ColumnDecorator bedrockDecorator;
+    private final ChunkDecorator baseDecorator;
+    private final ChunkDecorator bedrockDecorator;
     private final StructureTerrain structureTerrain;
     private final LazySupplier<Climate> climate;
 
@@ -57,25 +60,32 @@ public class BaseGenerator implements Generator.Terrain {
         this.levels = generator.getContext().levels;
         this.climate = generator.getContext().worldGenerator.then(WorldGeneratorFactory::getClimate);
         this.structureTerrain = new StructureTerrain(0.8F, 4F);
-        this.baseDecorator = getBaseDecorator(generator);
+        this.baseDecorator = ChunkDecorator.of(getBaseDecorator(generator));
         this.bedrockDecorator = new BedrockDecorator(generator.getContext());
     }
 
     @Override
     public final void generateTerrain(IWorld world, IChunk chunk, StructureManager structures) {
         try (ChunkReader reader = generator.getChunkReader(chunk.getPos().x, chunk.getPos().z)) {
-            TFBiomeContainer container = TFBiomeContainer.getOrCreate(FastChunk.wrap(chunk), reader, generator.getBiomeSource());
-            try (DecoratorContext context = new DecoratorContext(chunk, levels, climate.get())) {
+            TFBiomeContainer container = TFBiomeContainer.getOrCreate(chunk, reader, generator.getBiomeSource());
+
+            // collect the column fills & write them to the chunk section by section
+            BulkChunk bulkChunk = BulkChunk.wrap(chunk, generator.getMaterials());
+            IChunk target = bulkChunk == null ? chunk : bulkChunk;
+
+            try (DecoratorContext context = new DecoratorContext(target, levels, climate.get())) {
+                ChunkColumns columns = ColumnResource.get().columns.clear();
                 reader.iterate(context, (cell, dx, dz, ctx) -> {
-                    int px = ctx.blockX + dx;
-                    int pz = ctx.blockZ + dz;
-                    int py = ctx.levels.scale(cell.value);
-                    ctx.cell = cell;
-                    ctx.biome = container.getBiome(dx, dz);
-                    baseDecorator.decorate(ctx.chunk, ctx, px, py, pz);
-                    bedrockDecorator.decorate(ctx.chunk, ctx, px, py, pz);
+                    columns.set(dx, dz, cell, ctx.levels.scale(cell.value), container.getBiome(dx, dz));
                 });
 
+                baseDecorator.decorate(context.chunk, context, columns);
+                bedrockDecorator.decorate(context.chunk, context, columns);
+
+                if (bulkChunk != null) {
+                    bulkChunk.flush(columns);
+                }
+
                 structureTerrain.apply(world, chunk);
             }
         }
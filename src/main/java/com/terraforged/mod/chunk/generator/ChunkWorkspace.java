@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk.generator;
+
+import com.terraforged.mod.api.biome.surface.SurfaceChunk;
+import com.terraforged.mod.chunk.fix.ChunkCarverFix;
+import com.terraforged.mod.chunk.util.ChunkRegionBoundingBox;
+import net.minecraft.util.SharedSeedRandom;
+
+/**
+ * Holds the per-thread wrapper instances used by the generation stages so that they can be re-targeted at each new
+ * chunk rather than allocated for it. A stage must not hand these instances to anything that outlives the call.
+ */
+class ChunkWorkspace {
+
+    private static final ThreadLocal<ChunkWorkspace> LOCAL = ThreadLocal.withInitial(ChunkWorkspace::new);
+
+    final SurfaceChunk surfaceChunk = new SurfaceChunk(null);
+    final ChunkCarverFix carverChunk = new ChunkCarverFix(null, null, false, false);
+    final TerrainCarver.BiomeLookup biomeLookup = new TerrainCarver.BiomeLookup();
+    final SharedSeedRandom carverRandom = new SharedSeedRandom();
+    final SharedSeedRandom featureRandom = new SharedSeedRandom();
+    final ChunkRegionBoundingBox chunkBounds = new ChunkRegionBoundingBox(0, 0, 1);
+
+    static ChunkWorkspace get() {
+        return LOCAL.get();
+    }
+}
@@ -25,10 +25,12 @@
 package com.terraforged.mod.chunk.generator;
 
 import com.terraforged.engine.tile.chunk.ChunkReader;
-import com.terraforged.mod.api.chunk.column.ColumnDecorator;
+import com.terraforged.mod.api.chunk.column.ChunkColumns;
+import com.terraforged.mod.api.chunk.column.ChunkDecorator;
 import com.terraforged.mod.api.chunk.column.DecoratorContext;
 import com.terraforged.mod.biome.TFBiomeContainer;
 import com.terraforged.mod.chunk.TFChunkGenerator;
+import com.terraforged.mod.chunk.column.ColumnResource;
 import com.terraforged.mod.chunk.fix.RegionFix;
 import com.terraforged.mod.chunk.util.ChunkRegionBoundingBox;
 import com.terraforged.mod.featuremanager.biome.BiomeFeature;
@@ -75,13 +77,13 @@ public class FeatureGenerator implements Generator.Features {
         IChunk chunk = region.getChunk(chunkX, chunkZ);
 
         ChunkReader reader = generator.getChunkReader(chunkX, chunkZ);
-        TFBiomeContainer container = TFBiomeContainer.getOrCreate(chunk, reader, generator.getBiomeSource());
+        try (DecoratorContext context = generator.getContext().decorator(chunk)) {
+            TFBiomeContainer container = TFBiomeContainer.getOrCreate(chunk, reader, generator.getBiomeSource());
 
-        // de-hardcode sea-level
-        RegionFix regionFix = new RegionFix(region, generator);
+            // de-hardcode sea-level
+            RegionFix regionFix = new RegionFix(region, generator);
 
-        Biome biome = container.getFeatureBiome();
-        try (DecoratorContext context = generator.getContext().decorator(chunk)) {
+            Biome biome = container.getFeatureBiome();
             BlockPos pos = new BlockPos(context.blockX, 0, context.blockZ);
 
             // place biome features
@@ -90,14 +92,19 @@ public class FeatureGenerator implements Generator.Features {
             // run post processes on chunk
             postProcess(reader, container, context);
 
+            // persist the chunk's biomes if the tile store is enabled
+            generator.getContext().tileStore.get().putChunk(chunkX, chunkZ, container);
+
             // bake biome array
             ((ChunkPrimer) chunk).setBiomes(container.bakeBiomes(Environment.isVanillaBiomes(), generator.getContext().biomeContext));
-
-            // close the current chunk reader
+        } finally {
+            // close the reader & mark the chunk disposed (this is the last usage of the reader) even if
+            // decoration failed, otherwise the region's tile stays pinned until the scheduler gives up on it
             reader.close();
-
-            // mark chunk disposed as this is the last usage of the reader
             reader.dispose();
+
+            // let the scheduler move on once all of the region's chunks are done
+            generator.completeChunk(chunkX, chunkZ);
         }
     }
 
@@ -108,7 +115,8 @@ public class FeatureGenerator implements Generator.Features {
     }
 
     private void decorate(StructureManager manager, ISeedReader region, IChunk chunk, Biome biome, BlockPos pos, WatchdogContext context) {
-        final SharedSeedRandom random = new SharedSeedRandom();
+        final ChunkWorkspace workspace = ChunkWorkspace.get();
+        final SharedSeedRandom random = workspace.featureRandom;
         final long decorationSeed = random.setDecorationSeed(region.getSeed(), pos.getX(), pos.getZ());
 
         final BiomeFeatures biomeFeatures = generator.getFeatureManager().getFeatures(biome);
@@ -119,8 +127,8 @@ public class FeatureGenerator implements Generator.Features {
 
         final int chunkX = pos.getX() >> 4;
         final int chunkZ = pos.getZ() >> 4;
-        final ChunkPos chunkPos = new ChunkPos(chunkX, chunkZ);
-        final ChunkRegionBoundingBox chunkBounds = new ChunkRegionBoundingBox(chunkX, chunkZ, 1);
+        final ChunkPos chunkPos = chunk.getPos();
+        final ChunkRegionBoundingBox chunkBounds = workspace.chunkBounds.set(chunkX, chunkZ, 1);
 
         for (int stageIndex = 0; stageIndex < FEATURE_STAGES; stageIndex++) {
             int featureSeed = 0;
@@ -173,17 +181,16 @@ public class FeatureGenerator implements Generator.Features {
         }
     }
 
-    private void postProcess(ChunkReader reader, TFBiomeContainer container, DecoratorContext context) {
-        List<ColumnDecorator> decorators = generator.getPostProcessors();
+    void postProcess(ChunkReader reader, TFBiomeContainer container, DecoratorContext context) {
+        ChunkColumns columns = ColumnResource.get().columns.clear();
         reader.iterate(context, (cell, dx, dz, ctx) -> {
-            int px = ctx.blockX + dx;
-            int pz = ctx.blockZ + dz;
             int py = ctx.chunk.getHeight(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, dx, dz);
-            ctx.cell = cell;
-            ctx.biome = container.getBiome(dx, dz);
-            for (ColumnDecorator decorator : decorators) {
-                decorator.decorate(ctx.chunk, ctx, px, py, pz);
-            }
+            columns.set(dx, dz, cell, py, container.getBiome(dx, dz));
         });
+
+        List<ChunkDecorator> decorators = generator.getChunkPostProcessors();
+        for (int i = 0; i < decorators.size(); i++) {
+            decorators.get(i).decorate(context.chunk, context, columns);
+        }
     }
 }
@@ -26,6 +26,7 @@ package com.terraforged.mod.chunk.generator;
 
 import com.terraforged.mod.Log;
 import com.terraforged.mod.featuremanager.util.identity.Identifier;
+import com.terraforged.mod.profiler.trace.ChunkTrace;
 import com.terraforged.mod.profiler.watchdog.WarnTimer;
 import com.terraforged.mod.profiler.watchdog.WatchdogContext;
 import net.minecraft.entity.EntityClassification;
@@ -82,6 +83,11 @@ public interface Generator {
 
         @Nullable
         BlockPos findNearestStronghold(BlockPos pos);
+
+        /**
+         * Called when the world loads so that the stronghold positions can be computed ahead of their first use
+         */
+        default void prepareStrongholds() {}
     }
 
     interface Structures {
@@ -135,6 +141,7 @@ public interface Generator {
 
     static void checkTime(String type, Object identity, WarnTimer timer, long timestamp, WatchdogContext context) {
         long duration = timer.since(timestamp);
+        ChunkTrace.feature(type, identity, duration);
         if (timer.warn(duration)) {
             context.pushTime(type, identity, duration);
             Log.warn("{} was slow to generate! ({}ms): {}", type, duration, identity);
@@ -143,6 +150,7 @@ public interface Generator {
 
     static void checkTime(String type, Identifier identity, WarnTimer timer, long timestamp, WatchdogContext context) {
         long duration = timer.since(timestamp);
+        ChunkTrace.feature(type, identity.getComponents(), duration);
         if (timer.warn(duration)) {
             context.pushTime(type, identity, duration);
             Log.warn("{} was slow to generate! ({}ms): {}", type, duration, identity.getComponents());
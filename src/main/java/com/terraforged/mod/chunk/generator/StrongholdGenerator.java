@@ -39,6 +39,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
 
@@ -78,6 +79,13 @@ public class StrongholdGenerator implements Generator.Strongholds {
         return lookup.get().contains(pos);
     }
 
+    @Override
+    public void prepareStrongholds() {
+        // the positions must be generated in order as the biome searches share the random, so the whole
+        // generation runs as a single background task rather than blocking the first stronghold lookup
+        ForkJoinPool.commonPool().execute(positions::get);
+    }
+
     @Override
     public BlockPos findNearestStronghold(BlockPos pos) {
         double distance2 = Double.MAX_VALUE;
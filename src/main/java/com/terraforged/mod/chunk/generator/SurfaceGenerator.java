@@ -27,9 +27,12 @@ package com.terraforged.mod.chunk.generator;
 import com.terraforged.engine.tile.chunk.ChunkReader;
 import com.terraforged.mod.api.biome.surface.SurfaceChunk;
 import com.terraforged.mod.api.biome.surface.SurfaceContext;
+import com.terraforged.mod.api.chunk.column.ChunkColumns;
+import com.terraforged.mod.api.chunk.column.ChunkDecorator;
 import com.terraforged.mod.biome.TFBiomeContainer;
 import com.terraforged.mod.chunk.TFChunkGenerator;
-import com.terraforged.mod.chunk.util.FastChunk;
+import com.terraforged.mod.chunk.column.ColumnResource;
+import com.terraforged.mod.chunk.util.BulkChunk;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.SharedSeedRandom;
 import net.minecraft.world.chunk.IChunk;
@@ -39,6 +42,7 @@ import net.minecraft.world.gen.INoiseGenerator;
 import net.minecraft.world.gen.PerlinNoiseGenerator;
 import net.minecraft.world.gen.WorldGenRegion;
 
+import java.util.List;
 import java.util.stream.IntStream;
 
 public class SurfaceGenerator implements Generator.Surfaces {
@@ -60,9 +64,10 @@ public class SurfaceGenerator implements Generator.Surfaces {
     public final void generateSurface(WorldGenRegion world, IChunk chunk) {
         try (ChunkReader reader = generator.getChunkReader(chunk.getPos().x, chunk.getPos().z)) {
             TFBiomeContainer container = TFBiomeContainer.getOrCreate(chunk, reader, generator.getBiomeSource());
-            SurfaceChunk buffer = new SurfaceChunk(chunk);
+            SurfaceChunk buffer = ChunkWorkspace.get().surfaceChunk.init(chunk);
 
             try (SurfaceContext context = generator.getContext().surface(buffer, container, solid, fluid)) {
+                ChunkColumns columns = ColumnResource.get().columns.clear();
                 reader.iterate(context, (cell, dx, dz, ctx) -> {
                     int px = ctx.blockX + dx;
                     int pz = ctx.blockZ + dz;
@@ -74,15 +79,17 @@ public class SurfaceGenerator implements Generator.Surfaces {
                     ctx.noise = getSurfaceNoise(px, pz) * 15D;
                     generator.getSurfaceManager().getSurface(ctx).buildSurface(px, pz, top, ctx);
 
-                    int py = ctx.levels.scale(cell.value);
-                    ctx.surfaceY = py;
-                    ctx.pos.set(px, py, pz);
-
-                    for (int i = 0; i < generator.getSurfaceDecorators().size(); i++) {
-                        generator.getSurfaceDecorators().get(i).decorate(buffer, ctx, px, py, pz);
-                    }
+                    columns.set(dx, dz, cell, ctx.levels.scale(cell.value), ctx.biome);
+                    columns.setSurface(dx, dz, top, ctx.noise);
                 });
-                FastChunk.updateWGHeightmaps(chunk);
+
+                // per-column decorators have their column's surface level & noise restored by the adapter
+                List<ChunkDecorator> decorators = generator.getChunkSurfaceDecorators();
+                for (int i = 0; i < decorators.size(); i++) {
+                    decorators.get(i).decorate(buffer, context, columns);
+                }
+
+                BulkChunk.updateWGHeightmaps(chunk);
             }
         }
     }
@@ -73,16 +73,17 @@ public class TerrainCarver implements Generator.Carvers {
     private void carve(IChunk chunk, GenerationStage.Carving type, WatchdogContext context) {
         boolean nearRiver = nearRiver(chunk.getPos());
         boolean nearStructure = StructureUtils.hasOvergroundStructure(chunk);
-        ChunkCarverFix carverChunk = new ChunkCarverFix(chunk, generator.getMaterials(), nearStructure, nearRiver);
+        ChunkWorkspace workspace = ChunkWorkspace.get();
+        ChunkCarverFix carverChunk = workspace.carverChunk.init(chunk, generator.getMaterials(), nearStructure, nearRiver);
 
-        SharedSeedRandom random = new SharedSeedRandom();
+        SharedSeedRandom random = workspace.carverRandom;
         ChunkPos chunkpos = carverChunk.getPos();
         int chunkX = chunkpos.x;
         int chunkZ = chunkpos.z;
 
         int seaLevel = generator.getSeaLevel();
         TFBiomeContainer biomeContainer = TFBiomeContainer.getOrNull(chunk);
-        BiomeLookup lookup = new BiomeLookup(chunkpos, biomeContainer);
+        BiomeLookup lookup = workspace.biomeLookup.init(generator.getBiomeSource(), chunkpos, biomeContainer);
         BitSet mask = carverChunk.getCarvingMask(type);
         Biome biome = TerrainCarver.getBiome(biomeContainer, generator.getBiomeSource(), chunkpos);
         BiomeGenerationSettings settings = biome.getGenerationSettings();
@@ -111,24 +112,30 @@ public class TerrainCarver implements Generator.Carvers {
         }
     }
 
-    private class BiomeLookup implements Function<BlockPos, Biome> {
+    static class BiomeLookup implements Function<BlockPos, Biome> {
 
-        private final ChunkPos chunkPos;
-        private final TFBiomeContainer biomes;
         private final Cell cell = new Cell();
 
-        private BiomeLookup(ChunkPos chunkPos, @Nullable TFBiomeContainer biomes) {
-            this.chunkPos = chunkPos;
+        private int chunkX;
+        private int chunkZ;
+        private TFBiomeProvider biomeProvider;
+        private TFBiomeContainer biomes;
+
+        BiomeLookup init(TFBiomeProvider biomeProvider, ChunkPos chunkPos, @Nullable TFBiomeContainer biomes) {
+            this.chunkX = chunkPos.x;
+            this.chunkZ = chunkPos.z;
+            this.biomeProvider = biomeProvider;
             this.biomes = biomes;
+            return this;
         }
 
         @Override
         public Biome apply(BlockPos pos) {
-            if (biomes != null && (pos.getX() >> 4) == chunkPos.x && (pos.getZ() >> 4) == chunkPos.z) {
+            if (biomes != null && (pos.getX() >> 4) == chunkX && (pos.getZ() >> 4) == chunkZ) {
                 // Method masks to chunk-local coordinates
                 return biomes.getBiome(pos.getX(), pos.getZ());
             }
-            return generator.getBiomeSource().lookupBiome(cell, pos.getX(), pos.getZ(), false);
+            return biomeProvider.lookupBiome(cell, pos.getX(), pos.getZ(), false);
         }
     }
 
@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk.tile;
+
+import com.terraforged.engine.util.pos.PosUtil;
+import com.terraforged.mod.util.Environment;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A debug tracker for the ChunkReaders handed out by the TileScheduler, enabled with -DtrackReaders.
+ *
+ * Every acquisition is attributed to the generator class & method that requested it, and each region remembers the
+ * chunks it has handed readers to until they are released by the features stage. Once a region's last chunk has
+ * been released its tile is no longer referenced by chunk generation, so regions that remain tracked for a long time
+ * point to chunks that never finished generating or to readers acquired outside of chunk generation.
+ */
+public class ReaderTracker {
+
+    private static final String UNKNOWN = "unknown";
+    private static final String PACKAGE = "com.terraforged.mod.";
+
+    private final boolean enabled;
+    private final Object2IntOpenHashMap<String> stages = new Object2IntOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<Region> regions = new Long2ObjectOpenHashMap<>();
+
+    public ReaderTracker() {
+        this(Environment.isTrackingReaders());
+    }
+
+    public ReaderTracker(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    void acquire(long region, int chunkX, int chunkZ) {
+        String stage = getStage();
+        long now = System.nanoTime();
+        synchronized (regions) {
+            stages.addTo(stage, 1);
+
+            Region entry = regions.get(region);
+            if (entry == null) {
+                entry = new Region(now);
+                regions.put(region, entry);
+            }
+            entry.chunks.add(PosUtil.pack(chunkX, chunkZ));
+            entry.stages.addTo(stage, 1);
+        }
+    }
+
+    void release(long region, int chunkX, int chunkZ) {
+        synchronized (regions) {
+            Region entry = regions.get(region);
+            if (entry != null && entry.chunks.remove(PosUtil.pack(chunkX, chunkZ)) && entry.chunks.isEmpty()) {
+                regions.remove(region);
+            }
+        }
+    }
+
+    public Object2IntMap<String> getStageCounts() {
+        synchronized (regions) {
+            return new Object2IntOpenHashMap<>(stages);
+        }
+    }
+
+    /**
+     * Describes the regions that have been held by unreleased chunks for longer than the given number of seconds
+     */
+    public List<String> getPinned(long seconds) {
+        long now = System.nanoTime();
+        long age = TimeUnit.SECONDS.toNanos(seconds);
+        List<String> pinned = new ArrayList<>();
+        synchronized (regions) {
+            for (Long2ObjectMap.Entry<Region> entry : regions.long2ObjectEntrySet()) {
+                Region region = entry.getValue();
+                long held = now - region.firstAcquired;
+                if (held > age) {
+                    pinned.add(String.format("%s,%s: held=%ss, chunks=%s, acquired by=%s",
+                            PosUtil.unpackLeft(entry.getLongKey()),
+                            PosUtil.unpackRight(entry.getLongKey()),
+                            TimeUnit.NANOSECONDS.toSeconds(held),
+                            region.chunks.size(),
+                            region.stages));
+                }
+            }
+        }
+        return pinned;
+    }
+
+    // Regions are left in place as their chunks may still be generating
+    public void resetStats() {
+        synchronized (regions) {
+            stages.clear();
+        }
+    }
+
+    // Only used in debug mode so the cost of capturing the stack is acceptable
+    private static String getStage() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            String className = element.getClassName();
+            if (!className.startsWith(PACKAGE) || className.startsWith(TileScheduler.class.getName())) {
+                continue;
+            }
+            if (className.equals(ReaderTracker.class.getName()) || className.endsWith(".TFChunkGenerator")) {
+                continue;
+            }
+            return className.substring(className.lastIndexOf('.') + 1) + "." + element.getMethodName();
+        }
+        return UNKNOWN;
+    }
+
+    private static class Region {
+
+        private final long firstAcquired;
+        private final LongOpenHashSet chunks = new LongOpenHashSet();
+        private final Object2IntOpenHashMap<String> stages = new Object2IntOpenHashMap<>();
+
+        private Region(long firstAcquired) {
+            this.firstAcquired = firstAcquired;
+        }
+    }
+}
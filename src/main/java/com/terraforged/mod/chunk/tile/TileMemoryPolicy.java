@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk.tile;
+
+import com.terraforged.engine.tile.gen.TileCache;
+import com.terraforged.mod.Log;
+import com.terraforged.mod.config.ConfigManager;
+import com.terraforged.mod.config.PerfTuner;
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the approximate heap footprint of the tiles served by the TileScheduler and tells it when to hold back on
+ * queueing more of them.
+ *
+ * The TileCache owns the tiles and expires them on its own timer, so they can't be removed from here. Instead the
+ * regions used within the cache's expiry window are counted as resident and compared against the number of tiles that
+ * fit in the configured share of the heap. While that count is over budget, or the JVM reports that a heap pool is
+ * still above the pressure threshold after a collection, the scheduler queues regions one at a time and stops
+ * prefetching so that the cache can shrink before it grows again.
+ *
+ * Pressure is detected via the JVM-wide collection usage threshold of the heap pools. It is only set on pools that
+ * have no threshold yet, and is reset along with the listener when the server stops (see {@link #stopListening()}).
+ */
+public class TileMemoryPolicy {
+
+    public static final String BUDGET_KEY = "tile_heap_budget";
+    public static final int DEFAULT_BUDGET_PERCENT = 25;
+    public static final String PRESSURE_KEY = "tile_heap_pressure";
+    public static final int DEFAULT_PRESSURE_PERCENT = 85;
+
+    // Approximate heap retained by a Cell and its slot in the tile's cell array
+    private static final long CELL_BYTES = 96;
+    // Matches the TileCache's expiry so that tiles it has dropped stop counting towards the footprint
+    private static final long RESIDENT_TIMEOUT = TimeUnit.SECONDS.toNanos(60);
+    private static final long PRESSURE_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    private static final Object LOCK = new Object();
+    // Heap pools whose collection usage threshold was set by us, to be reset when the server stops
+    private static final List<MemoryPoolMXBean> THRESHOLD_POOLS = new ArrayList<>();
+    private static NotificationListener listener = null;
+    private static volatile long pressureTime = -1;
+
+    private final long tileBytes;
+    private final long budgetBytes;
+    private final int maxTiles;
+    // Regions -> the time they were last used, least recently used first
+    private final Long2LongLinkedOpenHashMap resident = new Long2LongLinkedOpenHashMap();
+
+    public TileMemoryPolicy(long tileBytes, long budgetBytes) {
+        this.tileBytes = Math.max(1, tileBytes);
+        this.budgetBytes = budgetBytes;
+        this.maxTiles = (int) Math.max(2, Math.min(Integer.MAX_VALUE, budgetBytes / this.tileBytes));
+    }
+
+    public int maxTiles() {
+        return maxTiles;
+    }
+
+    public int tiles() {
+        synchronized (resident) {
+            return resident.size();
+        }
+    }
+
+    public long bytes() {
+        return tiles() * tileBytes;
+    }
+
+    public long budgetBytes() {
+        return budgetBytes;
+    }
+
+    public boolean isUnderPressure() {
+        long time = pressureTime;
+        return time != -1 && System.nanoTime() - time < PRESSURE_TIMEOUT;
+    }
+
+    public boolean shouldThrottle() {
+        return isUnderPressure() || tiles() > maxTiles;
+    }
+
+    void onAccess(long region) {
+        long now = System.nanoTime();
+        synchronized (resident) {
+            resident.putAndMoveToLast(region, now);
+
+            // Entries are in access order so only the head needs checking for expiry
+            while (!resident.isEmpty() && now - resident.getLong(resident.firstLongKey()) > RESIDENT_TIMEOUT) {
+                resident.removeFirstLong();
+            }
+        }
+    }
+
+    boolean isResident(long region) {
+        long now = System.nanoTime();
+        synchronized (resident) {
+            return resident.containsKey(region) && now - resident.get(region) <= RESIDENT_TIMEOUT;
+        }
+    }
+
+    public static TileMemoryPolicy create(TileCache cache) {
+        int budgetPercent = ConfigManager.PERFORMANCE.load().getInt(BUDGET_KEY, DEFAULT_BUDGET_PERCENT);
+        int pressurePercent = ConfigManager.PERFORMANCE.load().getInt(PRESSURE_KEY, DEFAULT_PRESSURE_PERCENT);
+
+        int chunks = PerfTuner.getRegionChunks(cache);
+        long tileBytes = (long) chunks * chunks * 16 * 16 * CELL_BYTES;
+        long budgetBytes = Runtime.getRuntime().maxMemory() / 100 * Math.min(90, Math.max(1, budgetPercent));
+
+        listen(Math.min(99, Math.max(1, pressurePercent)));
+
+        TileMemoryPolicy policy = new TileMemoryPolicy(tileBytes, budgetBytes);
+        Log.info("Tile memory budget: {}mb ({} tiles of ~{}kb)", budgetBytes >> 20, policy.maxTiles, tileBytes >> 10);
+        return policy;
+    }
+
+    private static void listen(int pressurePercent) {
+        synchronized (LOCK) {
+            if (listener != null) {
+                return;
+            }
+
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                    continue;
+                }
+
+                long max = pool.getUsage().getMax();
+                // Don't override a threshold that has already been set by something else
+                if (max > 0 && pool.getCollectionUsageThreshold() == 0) {
+                    pool.setCollectionUsageThreshold(max / 100 * pressurePercent);
+                    THRESHOLD_POOLS.add(pool);
+                }
+            }
+
+            listener = (notification, handback) -> {
+                if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                    pressureTime = System.nanoTime();
+                }
+            };
+
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            if (memory instanceof NotificationEmitter) {
+                ((NotificationEmitter) memory).addNotificationListener(listener, null, null);
+            }
+        }
+    }
+
+    public static void stopListening() {
+        synchronized (LOCK) {
+            if (listener == null) {
+                return;
+            }
+
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            if (memory instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) memory).removeNotificationListener(listener);
+                } catch (ListenerNotFoundException e) {
+                    Log.debug("Memory listener was already removed");
+                }
+            }
+
+            // A threshold of zero disables the pool's threshold checking again
+            for (MemoryPoolMXBean pool : THRESHOLD_POOLS) {
+                pool.setCollectionUsageThreshold(0);
+            }
+
+            THRESHOLD_POOLS.clear();
+            listener = null;
+            pressureTime = -1;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk.tile;
+
+import com.terraforged.engine.tile.Tile;
+import com.terraforged.engine.tile.chunk.ChunkReader;
+import com.terraforged.engine.tile.gen.TileCache;
+import com.terraforged.engine.util.pos.PosUtil;
+import com.terraforged.mod.profiler.trace.ChunkTrace;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sits between the chunk generator and the TileCache and orders tile requests so that the chunks of a region are
+ * worked through together rather than in the server's arbitrary chunk order.
+ *
+ * Chunk requests (from the structure-starts stage) are grouped by region. Only a limited number of regions are queued
+ * on the TileCache at once, and when a slot frees up the waiting region with the most pending chunks goes next. A
+ * region's slot is released once all of its requested chunks have completed the features stage, or after a timeout
+ * in case some of its chunks are never generated past structure starts.
+ *
+ * Regions can also be prefetched ahead of any chunk requests (eg along a player's flight path). Prefetches bypass the
+ * region ordering but are limited to a fixed number of outstanding tiles, where a prefetched tile stops counting
+ * towards the limit once one of its chunks is generated or after a timeout.
+ *
+ * While the TileMemoryPolicy reports that the tiles are over their heap budget, or that the heap is under pressure,
+ * only one region is queued at a time and prefetching is paused.
+ */
+public class TileScheduler {
+
+    private static final int STRIPES = 16;
+    private static final int STRIPE_MASK = STRIPES - 1;
+    private static final int IDENTITY_CACHE_SIZE = 512;
+    private static final long ACTIVE_TIMEOUT = TimeUnit.SECONDS.toNanos(60);
+    private static final long PREFETCH_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+    private final int activeLimit;
+    private final int prefetchLimit;
+    private final TileCache tileCache;
+    private final TileMemoryPolicy memoryPolicy;
+    private final ReaderTracker readerTracker = new ReaderTracker();
+
+    // Regions with requested chunks -> number of chunks that are yet to complete
+    private final Long2IntOpenHashMap pending = new Long2IntOpenHashMap();
+    // Regions with requested chunks that are waiting for an active slot
+    private final LongLinkedOpenHashSet waiting = new LongLinkedOpenHashSet();
+    // Regions queued on the TileCache -> the time they were queued
+    private final Long2LongOpenHashMap active = new Long2LongOpenHashMap();
+    private final IdentityStripe[] identities = new IdentityStripe[STRIPES];
+    // Prefetched regions -> the time they were queued. Kept for the timeout so that they aren't queued repeatedly
+    private final Long2LongOpenHashMap prefetched = new Long2LongOpenHashMap();
+    // Prefetched regions that have not been used by a chunk yet
+    private final LongOpenHashSet outstanding = new LongOpenHashSet();
+    // Lets tile lookups skip the prefetch lock when there is nothing outstanding
+    private volatile int outstandingCount = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder regenerations = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder prefetches = new LongAdder();
+    private final LongAdder prefetchHits = new LongAdder();
+
+    public TileScheduler(TileCache tileCache, TileMemoryPolicy memoryPolicy, int activeLimit, int prefetchLimit) {
+        this.tileCache = tileCache;
+        this.memoryPolicy = memoryPolicy;
+        this.activeLimit = Math.max(1, activeLimit);
+        this.prefetchLimit = Math.max(0, prefetchLimit);
+        for (int i = 0; i < STRIPES; i++) {
+            identities[i] = new IdentityStripe();
+        }
+    }
+
+    public void queueChunk(int chunkX, int chunkZ) {
+        if (!tileCache.supportsQueuing()) {
+            return;
+        }
+
+        long region = PosUtil.pack(tileCache.chunkToRegion(chunkX), tileCache.chunkToRegion(chunkZ));
+        synchronized (pending) {
+            pending.addTo(region, 1);
+            if (!active.containsKey(region)) {
+                waiting.add(region);
+            }
+            drain(System.nanoTime());
+        }
+    }
+
+    public void completeChunk(int chunkX, int chunkZ) {
+        long region = PosUtil.pack(tileCache.chunkToRegion(chunkX), tileCache.chunkToRegion(chunkZ));
+        if (readerTracker.isEnabled()) {
+            readerTracker.release(region, chunkX, chunkZ);
+        }
+
+        if (!tileCache.supportsQueuing()) {
+            return;
+        }
+
+        synchronized (pending) {
+            if (pending.addTo(region, -1) <= 1) {
+                pending.remove(region);
+                waiting.remove(region);
+                active.remove(region);
+            }
+            drain(System.nanoTime());
+        }
+    }
+
+    /**
+     * Queues the region containing the given chunk for generation ahead of any chunk requests.
+     *
+     * @return true if the region was queued, false if it is already queued or the prefetch limit has been reached
+     */
+    public boolean prefetchChunk(int chunkX, int chunkZ) {
+        if (prefetchLimit == 0 || !tileCache.supportsQueuing() || memoryPolicy.shouldThrottle()) {
+            return false;
+        }
+
+        long region = PosUtil.pack(tileCache.chunkToRegion(chunkX), tileCache.chunkToRegion(chunkZ));
+        synchronized (prefetched) {
+            long now = System.nanoTime();
+            expirePrefetched(now);
+
+            if (prefetched.containsKey(region) || outstanding.size() >= prefetchLimit) {
+                return false;
+            }
+
+            synchronized (pending) {
+                if (pending.containsKey(region)) {
+                    return false;
+                }
+            }
+
+            prefetched.put(region, now);
+            outstanding.add(region);
+            outstandingCount = outstanding.size();
+            prefetches.increment();
+        }
+
+        tileCache.queueRegion(PosUtil.unpackLeft(region), PosUtil.unpackRight(region));
+        return true;
+    }
+
+    public Tile getTile(int chunkX, int chunkZ) {
+        int regionX = tileCache.chunkToRegion(chunkX);
+        int regionZ = tileCache.chunkToRegion(chunkZ);
+        Tile tile = tileCache.getTile(regionX, regionZ);
+        record(PosUtil.pack(regionX, regionZ), tile);
+        return tile;
+    }
+
+    public ChunkReader getChunk(int chunkX, int chunkZ) {
+        int regionX = tileCache.chunkToRegion(chunkX);
+        int regionZ = tileCache.chunkToRegion(chunkZ);
+        long region = PosUtil.pack(regionX, regionZ);
+
+        Tile tile = tileCache.getTile(regionX, regionZ);
+        record(region, tile);
+
+        if (readerTracker.isEnabled()) {
+            readerTracker.acquire(region, chunkX, chunkZ);
+        }
+
+        // read from the tile we already hold rather than looking it up in the cache a second time
+        return tile.getChunkReader(chunkX, chunkZ);
+    }
+
+    /**
+     * Checks whether the tiles covering the given chunk range have been used recently enough to still be held by the
+     * TileCache.
+     */
+    public boolean isResident(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        int minRegionX = tileCache.chunkToRegion(minChunkX);
+        int minRegionZ = tileCache.chunkToRegion(minChunkZ);
+        int maxRegionX = tileCache.chunkToRegion(maxChunkX);
+        int maxRegionZ = tileCache.chunkToRegion(maxChunkZ);
+        for (int rz = minRegionZ; rz <= maxRegionZ; rz++) {
+            for (int rx = minRegionX; rx <= maxRegionX; rx++) {
+                if (!memoryPolicy.isResident(PosUtil.pack(rx, rz))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a chunk from a tile that is already held in memory, or returns null if the tile may need generating.
+     * These reads aren't counted as tile requests so they don't keep the tile resident.
+     */
+    @Nullable
+    public ChunkReader getResidentChunk(int chunkX, int chunkZ) {
+        long region = PosUtil.pack(tileCache.chunkToRegion(chunkX), tileCache.chunkToRegion(chunkZ));
+        if (!memoryPolicy.isResident(region)) {
+            return null;
+        }
+        return tileCache.getChunk(chunkX, chunkZ);
+    }
+
+    public ReaderTracker getReaderTracker() {
+        return readerTracker;
+    }
+
+    public TileMemoryPolicy getMemoryPolicy() {
+        return memoryPolicy;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long regenerations() {
+        return regenerations.sum();
+    }
+
+    public long queued() {
+        return queued.sum();
+    }
+
+    public long prefetches() {
+        return prefetches.sum();
+    }
+
+    public long prefetchHits() {
+        return prefetchHits.sum();
+    }
+
+    public int outstandingPrefetches() {
+        synchronized (prefetched) {
+            return outstanding.size();
+        }
+    }
+
+    public int pendingRegions() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        regenerations.reset();
+        queued.reset();
+        prefetches.reset();
+        prefetchHits.reset();
+        readerTracker.resetStats();
+    }
+
+    private void drain(long now) {
+        expire(now);
+
+        int limit = memoryPolicy.shouldThrottle() ? 1 : activeLimit;
+        while (active.size() < limit && !waiting.isEmpty()) {
+            long region = nextRegion();
+            waiting.remove(region);
+            active.put(region, now);
+            queued.increment();
+            tileCache.queueRegion(PosUtil.unpackLeft(region), PosUtil.unpackRight(region));
+        }
+    }
+
+    // Picks the waiting region with the most pending chunks, favouring the earliest requested on ties
+    private long nextRegion() {
+        long best = waiting.firstLong();
+        int bestCount = pending.get(best);
+
+        LongIterator iterator = waiting.iterator();
+        while (iterator.hasNext()) {
+            long region = iterator.nextLong();
+            int count = pending.get(region);
+            if (count > bestCount) {
+                best = region;
+                bestCount = count;
+            }
+        }
+
+        return best;
+    }
+
+    private void expire(long now) {
+        if (active.isEmpty()) {
+            return;
+        }
+
+        LongIterator iterator = active.keySet().iterator();
+        while (iterator.hasNext()) {
+            long region = iterator.nextLong();
+            if (now - active.get(region) > ACTIVE_TIMEOUT) {
+                iterator.remove();
+                pending.remove(region);
+            }
+        }
+    }
+
+    private void expirePrefetched(long now) {
+        if (prefetched.isEmpty()) {
+            return;
+        }
+
+        LongIterator iterator = prefetched.keySet().iterator();
+        while (iterator.hasNext()) {
+            long region = iterator.nextLong();
+            if (now - prefetched.get(region) > PREFETCH_TIMEOUT) {
+                iterator.remove();
+                outstanding.remove(region);
+                outstandingCount = outstanding.size();
+            }
+        }
+    }
+
+    private void consumePrefetch(long region) {
+        if (outstandingCount == 0) {
+            return;
+        }
+
+        synchronized (prefetched) {
+            if (outstanding.remove(region)) {
+                outstandingCount = outstanding.size();
+                prefetchHits.increment();
+            }
+        }
+    }
+
+    private void record(long region, Tile tile) {
+        consumePrefetch(region);
+        memoryPolicy.onAccess(region);
+
+        IdentityStripe stripe = identities[(int) (region ^ (region >>> 32)) & STRIPE_MASK];
+        synchronized (stripe) {
+            WeakReference<Tile> previous = stripe.put(region, tile);
+            if (previous != null && previous.get() == tile) {
+                hits.increment();
+                ChunkTrace.tile(ChunkTrace.TILE_HIT);
+            } else if (previous == null) {
+                misses.increment();
+                ChunkTrace.tile(ChunkTrace.TILE_MISS);
+            } else {
+                regenerations.increment();
+                ChunkTrace.tile(ChunkTrace.TILE_REGENERATED);
+            }
+        }
+    }
+
+    private static class IdentityStripe {
+
+        // Weakly held so that the tiles can still be collected once the TileCache drops them
+        private final Long2ObjectLinkedOpenHashMap<WeakReference<Tile>> identities = new Long2ObjectLinkedOpenHashMap<>(IDENTITY_CACHE_SIZE);
+
+        private WeakReference<Tile> put(long region, Tile tile) {
+            WeakReference<Tile> previous = identities.getAndMoveToLast(region);
+            if (previous != null && previous.get() == tile) {
+                return previous;
+            }
+            if (previous == null && identities.size() >= IDENTITY_CACHE_SIZE) {
+                identities.removeFirst();
+            }
+            identities.putAndMoveToLast(region, new WeakReference<>(tile));
+            return previous;
+        }
+    }
+}
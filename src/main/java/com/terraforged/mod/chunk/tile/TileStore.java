@@ -0,0 +1,490 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk.tile;
+
+import com.terraforged.engine.util.pos.PosUtil;
+import com.terraforged.engine.world.biome.map.BiomeMap;
+import com.terraforged.mod.Log;
+import com.terraforged.mod.TerraForgedMod;
+import com.terraforged.mod.biome.TFBiomeContainer;
+import com.terraforged.mod.biome.context.TFBiomeContext;
+import com.terraforged.mod.chunk.TerraContext;
+import com.terraforged.mod.config.ConfigManager;
+import com.terraforged.mod.util.DataUtils;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.storage.FolderName;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An optional disk-backed tier below the TileCache. The biome ids of generated chunks are written into memory-mapped
+ * region files in the world folder so that they survive restarts, and are read back lazily for biome lookups made
+ * outside of chunk generation (eg locate searches).
+ *
+ * The tiles themselves (including their erosion) are owned by the Engine's TileCache, which can't be seeded with
+ * tiles from disk, so they are still generated for every chunk that is generated after a restart.
+ *
+ * Files are keyed & validated by a hash of the seed, the encoded TerraSettings and the biome registry so that data is
+ * never reused for a world with different settings, and there is one shared store per world directory. The total size
+ * on disk is capped, evicting the least recently used region files first.
+ *
+ * Open regions are split across lock stripes by position so that lookups of different regions don't contend, and
+ * each region is reference counted so that it is only closed (or deleted once evicted) after its last reader or
+ * writer has released it.
+ *
+ * Biome lookups read a whole chunk's biomes at a time into a per-thread buffer, so only the first lookup in a chunk
+ * touches the stripes. They also never perform file I/O themselves: a stored region that isn't open yet is opened in
+ * the background and the lookup falls back to computing the biome until it is.
+ */
+public class TileStore {
+
+    public static final String ENABLED_KEY = "tile_store";
+    public static final String SIZE_KEY = "tile_store_size_mb";
+    public static final boolean DEFAULT_ENABLED = false;
+    public static final int DEFAULT_SIZE_MB = 1024;
+
+    private static final int STRIPES = 16;
+    private static final int STRIPE_MASK = STRIPES - 1;
+    private static final int MAX_OPEN_PER_STRIPE = 4;
+    private static final String PREFIX = "r.";
+    private static final String EXTENSION = ".tfc";
+    private static final TileStore DISABLED = new TileStore(null, null, 0L, 0L);
+    private static final Map<Path, TileStore> STORES = new HashMap<>();
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+    private static final ThreadLocal<ChunkBiomes> CHUNK_BIOMES = ThreadLocal.withInitial(ChunkBiomes::new);
+
+    private final boolean enabled;
+    private final long hash;
+    private final long maxFiles;
+    private final Path directory;
+    private final TerraContext context;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    // All region files on disk in access order. Always locked after (never before) a stripe
+    private final LongLinkedOpenHashSet files = new LongLinkedOpenHashSet();
+
+    private volatile boolean initialized = false;
+    private volatile boolean closed = false;
+    private boolean valid = false;
+
+    private TileStore(TerraContext context, Path directory, long hash, long maxBytes) {
+        this.context = context;
+        this.directory = directory;
+        this.hash = hash;
+        this.enabled = directory != null;
+        this.maxFiles = Math.max(1, maxBytes / TileStoreRegion.FILE_SIZE);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public int getBiome(int blockX, int blockZ) {
+        if (!enabled) {
+            return BiomeMap.NULL_BIOME;
+        }
+
+        int chunkX = blockX >> 4;
+        int chunkZ = blockZ >> 4;
+        ChunkBiomes chunk = CHUNK_BIOMES.get();
+        if (!chunk.isAt(hash, chunkX, chunkZ)) {
+            loadChunk(chunk, chunkX, chunkZ);
+        }
+
+        return chunk.getBiome(blockX, blockZ);
+    }
+
+    public void putChunk(int chunkX, int chunkZ, TFBiomeContainer container) {
+        if (!enabled) {
+            return;
+        }
+
+        // Collect before opening the region
+        Buffers buffers = BUFFERS.get();
+        TFBiomeContext biomeContext = context.biomeContext;
+        for (int qz = 0; qz < 4; qz++) {
+            for (int qx = 0; qx < 4; qx++) {
+                Biome biome = container.getBiome(qx << 2, qz << 2);
+                buffers.biomes[qz * 4 + qx] = biomeContext.biomes.getId(biome);
+            }
+        }
+
+        TileStoreRegion region = acquire(chunkX, chunkZ, true);
+        if (region == null) {
+            return;
+        }
+
+        try {
+            region.putChunk(chunkX, chunkZ, buffers.biomes);
+        } finally {
+            release(region);
+        }
+    }
+
+    public void close() {
+        closed = true;
+        for (Stripe stripe : stripes) {
+            List<TileStoreRegion> regions;
+            synchronized (stripe) {
+                regions = new ArrayList<>(stripe.open.values());
+                stripe.open.clear();
+            }
+            // regions still in use are closed by their last user
+            regions.forEach(this::release);
+        }
+    }
+
+    private void loadChunk(ChunkBiomes chunk, int chunkX, int chunkZ) {
+        chunk.set(hash, chunkX, chunkZ);
+
+        TileStoreRegion region = acquireOpen(chunkX, chunkZ);
+        if (region == null) {
+            return;
+        }
+
+        try {
+            chunk.present = region.getBiomes(chunkX, chunkZ, chunk.biomes);
+        } finally {
+            release(region);
+        }
+    }
+
+    /**
+     * Returns the region containing the chunk with a reference held for the caller if it is already open. If it is
+     * stored but not open, the region is opened in the background and null is returned.
+     */
+    private TileStoreRegion acquireOpen(int chunkX, int chunkZ) {
+        if (!init()) {
+            return null;
+        }
+
+        long key = PosUtil.pack(chunkX >> TileStoreRegion.SHIFT, chunkZ >> TileStoreRegion.SHIFT);
+        Stripe stripe = getStripe(key);
+        synchronized (stripe) {
+            TileStoreRegion region = stripe.open.getAndMoveToLast(key);
+            if (region != null) {
+                region.retain();
+                return region;
+            }
+
+            synchronized (files) {
+                if (!files.contains(key)) {
+                    return null;
+                }
+            }
+
+            if (!stripe.opening.add(key)) {
+                return null;
+            }
+        }
+
+        ForkJoinPool.commonPool().execute(() -> {
+            try {
+                TileStoreRegion region = closed ? null : acquire(chunkX, chunkZ, false);
+                if (region != null) {
+                    // the store's own reference keeps it open for the lookups that follow
+                    release(region);
+                }
+            } finally {
+                synchronized (stripe) {
+                    stripe.opening.remove(key);
+                }
+            }
+        });
+
+        return null;
+    }
+
+    /**
+     * Returns the region containing the chunk with a reference held for the caller, or null if it doesn't exist and
+     * create is false. Callers must pass the region to release() once done with it.
+     */
+    private TileStoreRegion acquire(int chunkX, int chunkZ, boolean create) {
+        if (!init()) {
+            return null;
+        }
+
+        int regionX = chunkX >> TileStoreRegion.SHIFT;
+        int regionZ = chunkZ >> TileStoreRegion.SHIFT;
+        long key = PosUtil.pack(regionX, regionZ);
+        Stripe stripe = getStripe(key);
+
+        TileStoreRegion region;
+        TileStoreRegion closing = null;
+        LongList evicted = null;
+
+        synchronized (stripe) {
+            region = stripe.open.getAndMoveToLast(key);
+            if (region != null) {
+                region.retain();
+                return region;
+            }
+
+            synchronized (files) {
+                if (!create && !files.contains(key)) {
+                    return null;
+                }
+            }
+
+            // the file is opened under the stripe only so that other regions can still be read meanwhile
+            Path path = getPath(regionX, regionZ);
+            try {
+                region = TileStoreRegion.open(path, regionX, regionZ, hash);
+            } catch (IOException e) {
+                Log.err("Failed to open tile store region {}: {}", path, e);
+                synchronized (files) {
+                    files.remove(key);
+                }
+                return null;
+            }
+
+            // record the access so the LRU order persists across restarts
+            path.toFile().setLastModified(System.currentTimeMillis());
+
+            synchronized (files) {
+                files.addAndMoveToLast(key);
+                while (files.size() > maxFiles) {
+                    if (evicted == null) {
+                        evicted = new LongArrayList();
+                    }
+                    evicted.add(files.removeFirstLong());
+                }
+            }
+
+            stripe.open.putAndMoveToLast(key, region);
+            if (stripe.open.size() > MAX_OPEN_PER_STRIPE) {
+                closing = stripe.open.removeFirst();
+            }
+            region.retain();
+        }
+
+        // other stripes are only locked once this one has been released
+        if (closing != null) {
+            release(closing);
+        }
+
+        if (evicted != null) {
+            for (int i = 0; i < evicted.size(); i++) {
+                evict(evicted.getLong(i));
+            }
+        }
+
+        return region;
+    }
+
+    private void release(TileStoreRegion region) {
+        if (region.release() && region.isRemoved()) {
+            delete(region.getKey());
+        }
+    }
+
+    private void evict(long key) {
+        TileStoreRegion region;
+        synchronized (getStripe(key)) {
+            region = getStripe(key).open.remove(key);
+            if (region != null) {
+                region.markRemoved();
+            }
+        }
+
+        if (region == null) {
+            delete(key);
+        } else {
+            // drop the store's reference, the file is deleted once the last user releases it
+            release(region);
+        }
+    }
+
+    private void delete(long key) {
+        synchronized (getStripe(key)) {
+            synchronized (files) {
+                // the region was written to again after being evicted so is back in use
+                if (files.contains(key)) {
+                    return;
+                }
+            }
+
+            File file = getPath(PosUtil.unpackLeft(key), PosUtil.unpackRight(key)).toFile();
+            if (file.exists() && !file.delete()) {
+                Log.err("Unable to delete tile store region {}", file);
+            }
+        }
+    }
+
+    private Stripe getStripe(long key) {
+        return stripes[(int) HashCommon.mix(key) & STRIPE_MASK];
+    }
+
+    private boolean init() {
+        if (initialized) {
+            return valid;
+        }
+
+        synchronized (files) {
+            if (initialized) {
+                return valid;
+            }
+
+            try {
+                Files.createDirectories(directory);
+                valid = true;
+            } catch (IOException e) {
+                Log.err("Unable to create tile store directory {}: {}", directory, e);
+            }
+
+            // index existing region files, least recently used first
+            File[] existing = valid ? directory.toFile().listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(EXTENSION)) : null;
+            if (existing != null) {
+                List<File> sorted = new ArrayList<>();
+                Collections.addAll(sorted, existing);
+                sorted.sort(Comparator.comparingLong(File::lastModified));
+                for (File file : sorted) {
+                    String[] parts = file.getName().split("\\.");
+                    try {
+                        files.add(PosUtil.pack(Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+                    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                        Log.warn("Ignoring unrecognized tile store file {}", file);
+                    }
+                }
+                Log.info("Opened tile store {} ({} regions)", directory, files.size());
+            }
+
+            initialized = true;
+            return valid;
+        }
+    }
+
+    private Path getPath(int regionX, int regionZ) {
+        return directory.resolve(PREFIX + regionX + "." + regionZ + EXTENSION);
+    }
+
+    /**
+     * Returns the store shared by every context of the current world & settings, or a disabled store if the store is
+     * turned off or there is no running server (eg for the preset previews)
+     */
+    public static TileStore create(TerraContext context) {
+        boolean enabled = ConfigManager.PERFORMANCE.load().getBool(ENABLED_KEY, DEFAULT_ENABLED);
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (!enabled || server == null) {
+            return DISABLED;
+        }
+
+        long hash = computeHash(context);
+        long maxBytes = ConfigManager.PERFORMANCE.load().getLong(SIZE_KEY, DEFAULT_SIZE_MB) * 1024L * 1024L;
+        Path directory = server.getWorldPath(FolderName.ROOT)
+                .resolve(TerraForgedMod.MODID)
+                .resolve("tiles")
+                .resolve(Long.toHexString(hash));
+
+        synchronized (STORES) {
+            return STORES.computeIfAbsent(directory, dir -> new TileStore(context, dir, hash, maxBytes));
+        }
+    }
+
+    public static void closeAll() {
+        synchronized (STORES) {
+            for (TileStore store : STORES.values()) {
+                store.close();
+            }
+            STORES.clear();
+        }
+    }
+
+    // 64-bit FNV-1a hash of everything that affects the stored data
+    private static long computeHash(TerraContext context) {
+        StringBuilder key = new StringBuilder();
+        key.append(context.worldSeed).append('|');
+        key.append(DataUtils.toJson(context.terraSettings)).append('|');
+        for (Biome biome : context.biomeContext.biomes) {
+            key.append(context.biomeContext.biomes.getId(biome)).append('=').append(biome.getRegistryName()).append(',');
+        }
+
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static class Stripe {
+
+        // Open (mapped) regions in access order
+        private final Long2ObjectLinkedOpenHashMap<TileStoreRegion> open = new Long2ObjectLinkedOpenHashMap<>();
+        // Regions being opened in the background for biome lookups
+        private final LongOpenHashSet opening = new LongOpenHashSet();
+    }
+
+    private static class Buffers {
+
+        private final int[] biomes = new int[4 * 4];
+    }
+
+    // The stored biomes of the last chunk a thread looked up
+    private static class ChunkBiomes {
+
+        private final int[] biomes = new int[4 * 4];
+        private boolean loaded = false;
+        private boolean present = false;
+        private long store;
+        private int chunkX;
+        private int chunkZ;
+
+        private boolean isAt(long store, int chunkX, int chunkZ) {
+            return loaded && this.store == store && this.chunkX == chunkX && this.chunkZ == chunkZ;
+        }
+
+        private void set(long store, int chunkX, int chunkZ) {
+            this.loaded = true;
+            this.present = false;
+            this.store = store;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        private int getBiome(int blockX, int blockZ) {
+            if (!present) {
+                return BiomeMap.NULL_BIOME;
+            }
+            return biomes[((blockZ & 15) >> 2) * 4 + ((blockX & 15) >> 2)];
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk.tile;
+
+import com.terraforged.engine.util.pos.PosUtil;
+import com.terraforged.mod.Log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A memory-mapped file holding the stored biome ids for a 32x32 chunk region.
+ *
+ * Layout: [header][presence bitmap][chunk slots...] where each chunk slot holds the chunk's 4x4 biome ids. Slots are
+ * written with absolute puts so concurrent writers of different chunks don't interfere.
+ *
+ * Presence is published through an in-memory copy of the bitmap held in an AtomicIntegerArray. A chunk's bit is set
+ * there only after its slot has been written, so a reader that sees the bit also sees the slot's contents.
+ *
+ * Regions are reference counted by the TileStore: the store holds one reference while the region is open and each
+ * reader/writer holds one for the duration of its access. The file is closed when the count drops to zero.
+ */
+public class TileStoreRegion {
+
+    public static final int SHIFT = 5;
+    public static final int SIZE = 1 << SHIFT;
+    public static final int MASK = SIZE - 1;
+
+    private static final int MAGIC = 0x54464331; // TFC1
+    private static final int VERSION = 2;
+
+    private static final int CHUNKS = SIZE * SIZE;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+    private static final int BITMAP_SIZE = CHUNKS / 8;
+    private static final int BIOMES = 4 * 4;
+    private static final int SLOT_SIZE = BIOMES * 4;
+    private static final int DATA_OFFSET = HEADER_SIZE + BITMAP_SIZE;
+
+    public static final long FILE_SIZE = DATA_OFFSET + (long) CHUNKS * SLOT_SIZE;
+
+    private final int regionX;
+    private final int regionZ;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicIntegerArray present;
+
+    // Guarded by this
+    private int references = 1;
+    private boolean removed = false;
+
+    private TileStoreRegion(int regionX, int regionZ, FileChannel channel, MappedByteBuffer buffer) {
+        this.regionX = regionX;
+        this.regionZ = regionZ;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.present = new AtomicIntegerArray(CHUNKS / 32);
+        for (int index = 0; index < CHUNKS; index++) {
+            if ((buffer.get(HEADER_SIZE + (index >> 3)) & (1 << (index & 7))) != 0) {
+                present.accumulateAndGet(index >> 5, 1 << (index & 31), (a, b) -> a | b);
+            }
+        }
+    }
+
+    public long getKey() {
+        return PosUtil.pack(regionX, regionZ);
+    }
+
+    synchronized void retain() {
+        references++;
+    }
+
+    /**
+     * Releases one reference, closing the file if it was the last.
+     *
+     * @return true if the region was closed
+     */
+    boolean release() {
+        synchronized (this) {
+            if (--references > 0) {
+                return false;
+            }
+        }
+        close();
+        return true;
+    }
+
+    synchronized void markRemoved() {
+        removed = true;
+    }
+
+    synchronized boolean isRemoved() {
+        return removed;
+    }
+
+    public boolean hasChunk(int chunkX, int chunkZ) {
+        int index = chunkIndex(chunkX, chunkZ);
+        return (present.get(index >> 5) & (1 << (index & 31))) != 0;
+    }
+
+    /**
+     * Copies the chunk's 4x4 biome ids (indexed z * 4 + x) into the given array.
+     *
+     * @return false if the chunk hasn't been stored
+     */
+    public boolean getBiomes(int chunkX, int chunkZ, int[] biomes) {
+        if (!hasChunk(chunkX, chunkZ)) {
+            return false;
+        }
+        int slot = slotOffset(chunkX, chunkZ);
+        for (int i = 0; i < BIOMES; i++) {
+            biomes[i] = buffer.getInt(slot + i * 4);
+        }
+        return true;
+    }
+
+    /**
+     * @param biomes 4x4 biome ids indexed z * 4 + x
+     */
+    public void putChunk(int chunkX, int chunkZ, int[] biomes) {
+        int slot = slotOffset(chunkX, chunkZ);
+        for (int i = 0; i < BIOMES; i++) {
+            buffer.putInt(slot + i * 4, biomes[i]);
+        }
+
+        int index = chunkIndex(chunkX, chunkZ);
+        int bitmapIndex = HEADER_SIZE + (index >> 3);
+        synchronized (this) {
+            buffer.put(bitmapIndex, (byte) (buffer.get(bitmapIndex) | (1 << (index & 7))));
+        }
+
+        // publish the chunk last so that readers never see a partially written slot
+        present.accumulateAndGet(index >> 5, 1 << (index & 31), (a, b) -> a | b);
+    }
+
+    private void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            Log.err("Failed to close tile store region {},{}: {}", regionX, regionZ, e);
+        }
+    }
+
+    private int chunkIndex(int chunkX, int chunkZ) {
+        return (chunkZ - (regionZ << SHIFT)) * SIZE + (chunkX - (regionX << SHIFT));
+    }
+
+    private int slotOffset(int chunkX, int chunkZ) {
+        return DATA_OFFSET + chunkIndex(chunkX, chunkZ) * SLOT_SIZE;
+    }
+
+    /**
+     * Opens (creating if needed) the region file at the given path. An existing file with a different validation hash
+     * was written for other world settings and is cleared.
+     */
+    public static TileStoreRegion open(Path path, int regionX, int regionZ, long hash) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean valid = channel.size() == FILE_SIZE && isValid(channel, regionX, regionZ, hash);
+            if (!valid && channel.size() > FILE_SIZE) {
+                // written with an older, larger layout
+                channel.truncate(FILE_SIZE);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+
+            if (!valid) {
+                // clear the presence bitmap & write a fresh header
+                for (int i = 0; i < BITMAP_SIZE; i++) {
+                    buffer.put(HEADER_SIZE + i, (byte) 0);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(8, hash);
+                buffer.putInt(16, regionX);
+                buffer.putInt(20, regionZ);
+            }
+
+            return new TileStoreRegion(regionX, regionZ, channel, buffer);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean isValid(FileChannel channel, int regionX, int regionZ, long hash) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        return header.remaining() == HEADER_SIZE
+                && header.getInt() == MAGIC
+                && header.getInt() == VERSION
+                && header.getLong() == hash
+                && header.getInt() == regionX
+                && header.getInt() == regionZ;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.chunk.util;
+
+import com.google.common.collect.ImmutableSet;
+import com.terraforged.mod.api.chunk.ChunkDelegate;
+import com.terraforged.mod.api.chunk.column.ChunkColumns;
+import com.terraforged.mod.material.Materials;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.IChunk;
+import net.minecraft.world.gen.Heightmap;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A ChunkPrimer wrapper for bulk terrain writes.
+ *
+ * BlockStates set on the wrapper are collected into a thread-local buffer and are only written to the primer when
+ * the chunk is flushed. Each touched section is then written in one pass under a single lock, and the worldgen
+ * heightmaps are installed once per column from the tile heights rather than updated for every block.
+ */
+public class BulkChunk extends ChunkDelegate {
+
+    private static final int SECTION_SIZE = 16 * 16 * 16;
+    private static final Set<Heightmap.Type> HEIGHT_MAPS = ImmutableSet.of(Heightmap.Type.OCEAN_FLOOR_WG, Heightmap.Type.WORLD_SURFACE_WG);
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private final int blockX;
+    private final int blockZ;
+    private final Buffer buffer;
+    private final ChunkPrimer primer;
+    private final Materials materials;
+    private final BlockPos.Mutable mutable = new BlockPos.Mutable();
+
+    private BulkChunk(ChunkPrimer primer, Materials materials) {
+        super(primer);
+        this.primer = primer;
+        this.materials = materials;
+        // clear in case a previous chunk on this thread failed before flushing
+        this.buffer = BUFFER.get().clear();
+        this.blockX = primer.getPos().getMinBlockX();
+        this.blockZ = primer.getPos().getMinBlockZ();
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        if (pos.getY() >= 0 && pos.getY() < 256) {
+            BlockState state = buffer.states[indexOf(pos.getX() & 15, pos.getY(), pos.getZ() & 15)];
+            if (state != null) {
+                return state;
+            }
+        }
+        return primer.getBlockState(pos);
+    }
+
+    @Override
+    public BlockState setBlockState(BlockPos pos, BlockState state, boolean falling) {
+        if (pos.getY() >= 0 && pos.getY() < 256) {
+            int dx = pos.getX() & 15;
+            int dz = pos.getZ() & 15;
+            int index = indexOf(dx, pos.getY(), dz);
+
+            BlockState replaced = buffer.states[index];
+            if (replaced == null) {
+                replaced = primer.getBlockState(pos);
+            }
+
+            buffer.states[index] = state;
+            buffer.sections |= 1 << (pos.getY() >> 4);
+
+            int column = (dz << 4) + dx;
+            if (pos.getY() > buffer.columnTops[column]) {
+                buffer.columnTops[column] = pos.getY();
+            }
+
+            return replaced;
+        }
+        return Blocks.VOID_AIR.defaultBlockState();
+    }
+
+    public void flush(ChunkColumns columns) {
+        try {
+            writeSections();
+            writeLights();
+            updateHeightmaps(columns);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void writeSections() {
+        BlockState lightState = null;
+        boolean lightEmitting = false;
+
+        for (int sectionY = 0; sectionY < 16; sectionY++) {
+            if ((buffer.sections & (1 << sectionY)) == 0) {
+                continue;
+            }
+
+            int start = sectionY * SECTION_SIZE;
+            ChunkSection section = primer.getOrCreateSection(sectionY);
+            section.acquire();
+            try {
+                for (int i = 0; i < SECTION_SIZE; i++) {
+                    BlockState state = buffer.states[start + i];
+                    if (state == null) {
+                        continue;
+                    }
+
+                    int dx = i & 15;
+                    int dz = (i >> 4) & 15;
+                    int dy = i >> 8;
+                    section.setBlockState(dx, dy, dz, state, false);
+
+                    if (state.isAir()) {
+                        continue;
+                    }
+
+                    // Terrain is written in long runs of the same state so only re-check light on changes
+                    if (state != lightState) {
+                        lightState = state;
+                        lightEmitting = materials.isLightSource(state);
+                    }
+
+                    if (lightEmitting) {
+                        buffer.lights.add(BlockPos.asLong(blockX + dx, (sectionY << 4) + dy, blockZ + dz));
+                    }
+                }
+            } finally {
+                section.release();
+            }
+        }
+    }
+
+    private void writeLights() {
+        for (int i = 0; i < buffer.lights.size(); i++) {
+            primer.addLight(mutable.set(buffer.lights.getLong(i)));
+        }
+    }
+
+    private void updateHeightmaps(ChunkColumns columns) {
+        Heightmap worldSurface = primer.getOrCreateHeightmapUnprimed(Heightmap.Type.WORLD_SURFACE_WG);
+        Heightmap oceanSurface = primer.getOrCreateHeightmapUnprimed(Heightmap.Type.OCEAN_FLOOR_WG);
+
+        for (int dz = 0; dz < 16; dz++) {
+            for (int dx = 0; dx < 16; dx++) {
+                int column = ChunkColumns.indexOf(dx, dz);
+                int top = buffer.columnTops[column];
+
+                // The world surface is the highest block written to the column
+                for (int y = top; y >= 0; y--) {
+                    BlockState state = getBufferedState(dx, y, dz);
+                    if (!state.isAir() && worldSurface.update(dx, y, dz, state)) {
+                        break;
+                    }
+                }
+
+                // Only fluids are written above the tile height so the ocean floor search can start from it
+                for (int y = Math.min(top, columns.heights[column]); y >= 0; y--) {
+                    BlockState state = getBufferedState(dx, y, dz);
+                    if (!state.isAir() && oceanSurface.update(dx, y, dz, state)) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private BlockState getBufferedState(int dx, int y, int dz) {
+        BlockState state = buffer.states[indexOf(dx, y, dz)];
+        if (state == null) {
+            return primer.getBlockState(mutable.set(blockX + dx, y, blockZ + dz));
+        }
+        return state;
+    }
+
+    private static int indexOf(int dx, int y, int dz) {
+        return (y << 8) + (dz << 4) + dx;
+    }
+
+    public static BulkChunk wrap(IChunk chunk, Materials materials) {
+        if (chunk.getClass() == ChunkPrimer.class) {
+            return new BulkChunk((ChunkPrimer) chunk, materials);
+        }
+        return null;
+    }
+
+    /**
+     * Re-primes the worldgen heightmaps of chunks that don't maintain them as blocks are set.
+     *
+     * ChunkPrimers update their worldgen heightmaps on every setBlockState during the pre-feature stages and their
+     * terrain heightmaps are installed from the tile data when a BulkChunk is flushed, so no scan is required for them.
+     */
+    public static void updateWGHeightmaps(IChunk chunk) {
+        if (chunk.getClass() == ChunkPrimer.class) {
+            return;
+        }
+        primeWGHeightmaps(chunk);
+    }
+
+    public static void primeWGHeightmaps(IChunk chunk) {
+        Heightmap.primeHeightmaps(chunk, HEIGHT_MAPS);
+    }
+
+    private static class Buffer {
+
+        private final BlockState[] states = new BlockState[SECTION_SIZE * 16];
+        private final int[] columnTops = new int[16 * 16];
+        private final LongArrayList lights = new LongArrayList();
+        private int sections = 0;
+
+        private Buffer() {
+            Arrays.fill(columnTops, -1);
+        }
+
+        private Buffer clear() {
+            for (int sectionY = 0; sectionY < 16; sectionY++) {
+                if ((sections & (1 << sectionY)) != 0) {
+                    int start = sectionY * SECTION_SIZE;
+                    Arrays.fill(states, start, start + SECTION_SIZE, null);
+                }
+            }
+            Arrays.fill(columnTops, -1);
+            lights.clear();
+            sections = 0;
+            return this;
+        }
+    }
+}
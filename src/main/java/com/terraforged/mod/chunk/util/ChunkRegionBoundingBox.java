@@ -34,21 +34,26 @@ public class ChunkRegionBoundingBox extends MutableBoundingBox {
     private static final int INCLUSIVE_SIZE = 15;
     private static final String ERROR_MESSAGE = "Structure {} attempted to change the world-gen region bounds to an unsafe location/size. Original: {}, Altered: {}";
 
-    private final int boundX0, boundZ1, boundX1, boundZ2;
-    private final int radiusX0, radiusZ0, radiusX1, radiusZ1;
+    private int boundX0, boundZ1, boundX1, boundZ2;
+    private int radiusX0, radiusZ0, radiusX1, radiusZ1;
 
     private String structure = "unknown";
 
     public ChunkRegionBoundingBox(int chunkX, int chunkZ, int chunkRadius) {
         super(chunkX << 4, chunkZ << 4, (chunkX << 4) + INCLUSIVE_SIZE, (chunkZ << 4) + INCLUSIVE_SIZE);
-        this.boundX0 = x0;
-        this.boundZ1 = z0;
-        this.boundX1 = x1;
-        this.boundZ2 = z1;
+        set(chunkX, chunkZ, chunkRadius);
+    }
+
+    public ChunkRegionBoundingBox set(int chunkX, int chunkZ, int chunkRadius) {
+        this.boundX0 = chunkX << 4;
+        this.boundZ1 = chunkZ << 4;
+        this.boundX1 = (chunkX << 4) + INCLUSIVE_SIZE;
+        this.boundZ2 = (chunkZ << 4) + INCLUSIVE_SIZE;
         this.radiusX0 = (chunkX - chunkRadius) << 4;
         this.radiusZ0 = (chunkZ - chunkRadius) << 4;
         this.radiusX1 = ((chunkX + chunkRadius) << 4) + INCLUSIVE_SIZE;
         this.radiusZ1 = ((chunkZ + chunkRadius) << 4) + INCLUSIVE_SIZE;
+        return init("unknown");
     }
 
     public ChunkRegionBoundingBox init(StructureStart<?> start) {
@@ -29,7 +29,10 @@ import com.electronwill.nightconfig.core.Config;
 import com.electronwill.nightconfig.core.file.CommentedFileConfig;
 import com.electronwill.nightconfig.toml.TomlFormat;
 import com.terraforged.mod.Log;
+import com.terraforged.mod.biome.provider.BiomePatchCache;
 import com.terraforged.mod.chunk.settings.preset.Preset;
+import com.terraforged.mod.chunk.tile.TileMemoryPolicy;
+import com.terraforged.mod.chunk.tile.TileStore;
 import com.terraforged.mod.client.gui.GuiKeys;
 import com.terraforged.mod.feature.TagConfigFixer;
 import com.terraforged.mod.profiler.watchdog.Watchdog;
@@ -89,8 +92,76 @@ public class ConfigManager {
                 "Controls the number of pieces a heightmap tile is divided up into.",
                 "Higher batch counts may be able to utilize more of the available threads, improving performance."
         );
+
+        set(
+                cfg,
+                "tile_queue_limit",
+                PerfDefaults.TILE_QUEUE_LIMIT,
+                "Controls the number of heightmap tiles that can be queued for generation ahead of time.",
+                "Queued tiles are worked through one region at a time so that a tile's chunks are generated",
+                "together before it can be evicted from the cache."
+        );
+
+        set(
+                cfg,
+                "tile_prefetch_limit",
+                PerfDefaults.TILE_PREFETCH_LIMIT,
+                "Controls the number of heightmap tiles that can be generated ahead of fast moving players",
+                "(eg flying with an elytra) before any of their chunks are requested. Set to 0 to disable."
+        );
+
+        set(
+                cfg,
+                TileMemoryPolicy.BUDGET_KEY,
+                TileMemoryPolicy.DEFAULT_BUDGET_PERCENT,
+                "The share of the maximum heap size (as a percentage) that heightmap tiles may occupy.",
+                "Once exceeded, tiles are queued for generation one at a time until older tiles expire."
+        );
+
+        set(
+                cfg,
+                TileMemoryPolicy.PRESSURE_KEY,
+                TileMemoryPolicy.DEFAULT_PRESSURE_PERCENT,
+                "The heap usage (as a percentage) that is considered to be under pressure when still exceeded",
+                "after a garbage collection. Tile generation is throttled while the heap is under pressure."
+        );
+
+        set(
+                cfg,
+                PerfTuner.AUTO_TUNE_KEY,
+                PerfTuner.DEFAULT_AUTO_TUNE,
+                "Measures tile generation speed for several tile sizes & batch counts in the background on the first world load",
+                "and uses the fastest combination for this machine instead of 'tile_size' and 'batch_count' from the next load.",
+                "The result is stored in performance_tuned.conf. Delete that file to re-run the calibration."
+        );
+
+        set(
+                cfg,
+                TileStore.ENABLED_KEY,
+                TileStore.DEFAULT_ENABLED,
+                "Stores the biomes of generated chunks in the world folder so that they can be reused",
+                "after a restart for biome lookups and locate searches."
+        );
+
+        set(
+                cfg,
+                TileStore.SIZE_KEY,
+                TileStore.DEFAULT_SIZE_MB,
+                "The maximum size (in megabytes) of the stored tile data for a world.",
+                "The least recently used regions are removed when this size is exceeded."
+        );
+
+        set(
+                cfg,
+                BiomePatchCache.ENABLED_KEY,
+                BiomePatchCache.DEFAULT_ENABLED,
+                "Caches the biomes of whole 16x16 chunk areas read from heightmap tiles that are already in",
+                "memory, speeding up repeated biome lookups such as structure placement and locate searches."
+        );
     }));
 
+    public static final ConfigRef PERFORMANCE_TUNED = new ConfigRef(() -> create("performance_tuned", cfg -> {}));
+
     public static final ConfigRef GENERAL = new ConfigRef(GENERAL_VERSION, version -> create("general", version, cfg -> {
         set(
                 cfg,
@@ -35,6 +35,8 @@ public class PerfDefaults {
     public static final int TILE_SIZE = 3;
     public static final int BATCH_COUNT = 6;
     public static final int THREAD_COUNT = ThreadPools.defaultPoolSize();
+    public static final int TILE_QUEUE_LIMIT = Math.max(2, THREAD_COUNT);
+    public static final int TILE_PREFETCH_LIMIT = Math.max(1, THREAD_COUNT / 2);
 
     public static final int MAX_TILE_SIZE = 8;
     public static final int MAX_BATCH_COUNT = 20;
@@ -60,6 +62,14 @@ public class PerfDefaults {
         return config;
     }
 
+    public static int getTileQueueLimit() {
+        return Math.max(1, ConfigManager.PERFORMANCE.load().getInt("tile_queue_limit", TILE_QUEUE_LIMIT));
+    }
+
+    public static int getTilePrefetchLimit() {
+        return Math.max(0, ConfigManager.PERFORMANCE.load().getInt("tile_prefetch_limit", TILE_PREFETCH_LIMIT));
+    }
+
     public static int getTileBorderSize(FilterSettings settings) {
         // Scale tile border size with droplet lifetime
         return Math.min(2, Math.max(1, settings.erosion.dropletLifetime / 16));
@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.config;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.terraforged.engine.concurrent.thread.ThreadPool;
+import com.terraforged.engine.concurrent.thread.ThreadPools;
+import com.terraforged.engine.tile.gen.TileCache;
+import com.terraforged.engine.tile.gen.TileGenerator;
+import com.terraforged.engine.world.WorldGeneratorFactory;
+import com.terraforged.mod.Log;
+import com.terraforged.mod.profiler.Profiler;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Picks the tile size & batch count for the host by timing tile generation for a set of candidates. The result is
+ * persisted (keyed by the host's processor count & thread settings) and applied from the next world load onwards.
+ *
+ * Calibration runs on a background thread so that it doesn't hold up the world load that triggered it. That load uses
+ * the configured settings instead. The thread waits until chunk generation has been idle for a while before it starts
+ * so that the calibration pool doesn't compete with the world's own generation threads, and discards the results (to
+ * try again later) if any chunks were generated while it was measuring.
+ */
+public class PerfTuner {
+
+    public static final String AUTO_TUNE_KEY = "auto_tune";
+    public static final boolean DEFAULT_AUTO_TUNE = false;
+
+    private static final int[] TILE_SIZES = {2, 3, 4};
+    private static final int[] BATCH_COUNTS = {2, 6, 12};
+    private static final int MIN_SAMPLES = 2;
+    private static final int MAX_SAMPLES = 6;
+    private static final long SAMPLE_TIME = TimeUnit.MILLISECONDS.toNanos(1000);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long IDLE_TIME = TimeUnit.SECONDS.toMillis(10);
+    private static final long IDLE_POLL = TimeUnit.SECONDS.toMillis(1);
+
+    private static final AtomicBoolean CALIBRATING = new AtomicBoolean();
+
+    // Sample far from spawn so the results aren't skewed by anything cached around the origin
+    private static final int SAMPLE_REGION = 4096;
+
+    private final int threadCount;
+    private final boolean batching;
+    private final int tileBorder;
+    private final WorldGeneratorFactory factory;
+
+    public PerfTuner(WorldGeneratorFactory factory, int tileBorder, int threadCount, boolean batching) {
+        this.factory = factory;
+        this.tileBorder = tileBorder;
+        this.threadCount = threadCount;
+        this.batching = batching;
+    }
+
+    /**
+     * @return the tuned {tileSize, batchCount}, or null if the host hasn't been calibrated yet
+     */
+    public int[] getSettings(int defaultBatchCount) {
+        String host = getHostKey();
+        CommentedConfig tuned = ConfigManager.PERFORMANCE_TUNED.get();
+        if (host.equals(tuned.getOrElse("host", ""))) {
+            int tileSize = tuned.getInt("tile_size");
+            int batchCount = tuned.getInt("batch_count");
+            Log.info("Using auto-tuned performance settings: tile_size={}, batch_count={}", tileSize, batchCount);
+            return new int[]{tileSize, batchCount};
+        }
+
+        // Only one calibration at a time, eg when several dimensions load together
+        if (CALIBRATING.compareAndSet(false, true)) {
+            Thread thread = new Thread(() -> {
+                try {
+                    int[] result = null;
+                    for (int attempt = 0; attempt < MAX_ATTEMPTS && result == null; attempt++) {
+                        long activity = awaitIdle();
+                        if (activity == -1) {
+                            return;
+                        }
+
+                        result = calibrate(defaultBatchCount, activity);
+                        if (result == null && getActivity() == activity) {
+                            // failed rather than disturbed so don't retry
+                            return;
+                        }
+                    }
+
+                    if (result != null) {
+                        ConfigManager.PERFORMANCE_TUNED.set(cfg -> {
+                            cfg.set("host", host);
+                            cfg.set("tile_size", result[0]);
+                            cfg.set("batch_count", result[1]);
+                        });
+                        Log.info("Auto-tuned performance settings will be used from the next world load");
+                    } else {
+                        Log.info("Auto-tuning skipped, chunk generation did not stay idle long enough to measure");
+                    }
+                } catch (InterruptedException e) {
+                    Log.debug("Auto-tuning interrupted");
+                } finally {
+                    CALIBRATING.set(false);
+                }
+            }, "TF-PerfTuner");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+
+        return null;
+    }
+
+    /**
+     * @param activity the chunk generation activity when calibration started
+     * @return the fastest {tileSize, batchCount}, or null if calibration failed or chunks were generated meanwhile
+     */
+    private int[] calibrate(int defaultBatchCount, long activity) {
+        Log.info("Auto-tuning tile generation for {} threads (batching={})...", threadCount, batching);
+
+        // Batch count has no effect without batching
+        int[] batchCounts = batching ? BATCH_COUNTS : new int[]{defaultBatchCount};
+
+        int[] best = null;
+        double bestRate = 0.0;
+        ThreadPool pool = ThreadPools.create(threadCount, batching);
+        try {
+            int region = SAMPLE_REGION;
+            for (int tileSize : TILE_SIZES) {
+                for (int batchCount : batchCounts) {
+                    TileCache cache = TileGenerator.builder()
+                            .pool(pool)
+                            .size(tileSize, tileBorder)
+                            .batch(batchCount)
+                            .factory(factory)
+                            .build()
+                            .toCache(false);
+
+                    int chunks = getRegionChunks(cache);
+
+                    // warm up
+                    cache.getTile(region++, 0);
+
+                    int samples = 0;
+                    long start = System.nanoTime();
+                    long elapsed = 0L;
+                    while (samples < MAX_SAMPLES && (samples < MIN_SAMPLES || elapsed < SAMPLE_TIME)) {
+                        cache.getTile(region++, 0);
+                        samples++;
+                        elapsed = System.nanoTime() - start;
+                    }
+
+                    double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+                    double tileRate = samples / seconds;
+                    double chunkRate = tileRate * chunks * chunks;
+                    Log.info(" - tile_size={}, batch_count={}: {} tiles/s ({} chunks/s)",
+                            tileSize,
+                            batchCount,
+                            String.format("%.2f", tileRate),
+                            String.format("%.1f", chunkRate)
+                    );
+
+                    // Compare by area since larger tiles are expected to take longer
+                    if (chunkRate > bestRate) {
+                        bestRate = chunkRate;
+                        best = new int[]{tileSize, batchCount};
+                    }
+
+                    if (getActivity() != activity) {
+                        Log.info("Chunk generation resumed during auto-tuning, discarding results");
+                        return null;
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            Log.err("Auto-tuning failed: {}", t);
+            return null;
+        } finally {
+            pool.shutdown();
+        }
+
+        if (best != null) {
+            Log.info("Auto-tuned performance settings: tile_size={}, batch_count={}", best[0], best[1]);
+        }
+
+        return best;
+    }
+
+    /**
+     * Waits until no chunks have been generated for IDLE_TIME.
+     *
+     * @return the generation activity at that point, or -1 if the server has stopped
+     */
+    private static long awaitIdle() throws InterruptedException {
+        long activity = getActivity();
+        long idleSince = System.currentTimeMillis();
+        while (System.currentTimeMillis() - idleSince < IDLE_TIME) {
+            Thread.sleep(IDLE_POLL);
+
+            if (ServerLifecycleHooks.getCurrentServer() == null) {
+                return -1;
+            }
+
+            long current = getActivity();
+            if (current != activity) {
+                activity = current;
+                idleSince = System.currentTimeMillis();
+            }
+        }
+        return activity;
+    }
+
+    // The number of chunk stages completed so far, which only changes while chunks are being generated
+    private static long getActivity() {
+        long hits = 0L;
+        for (Profiler profiler : Profiler.values()) {
+            hits += profiler.hits();
+        }
+        return hits;
+    }
+
+    private String getHostKey() {
+        return Runtime.getRuntime().availableProcessors() + ":" + threadCount + ":" + batching + ":" + tileBorder;
+    }
+
+    // Width of a tile in chunks (excluding its border)
+    public static int getRegionChunks(TileCache cache) {
+        int chunks = 1;
+        while (chunks < 4096 && cache.chunkToRegion(chunks) == 0) {
+            chunks++;
+        }
+        return chunks;
+    }
+}
@@ -33,6 +33,8 @@ import com.terraforged.mod.chunk.settings.TerraSettings;
 import com.terraforged.mod.chunk.util.DummyBlockReader;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSets;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSets;
 import net.minecraft.block.AirBlock;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
@@ -60,6 +62,7 @@ public class Materials {
     public final Set<Block> clay = createSet(WGTags.CLAY, States.CLAY.getBlock());
     public final Set<Block> sediment = createSet(WGTags.SEDIMENT, States.GRAVEL.getBlock());
     public final Set<Block> erodible = createSet(WGTags.ERODIBLE, null);
+    public final Set<BlockState> lightSources = createLightSources();
 
     private Materials(TerraSettings settings) {
         if (settings.miscellaneous.oreCompatibleStoneOnly) {
@@ -101,6 +104,10 @@ public class Materials {
         return block instanceof GrassBlock || block instanceof MyceliumBlock;
     }
 
+    public boolean isLightSource(BlockState state) {
+        return lightSources.contains(state);
+    }
+
     private static Set<Block> createSet(ITag<Block> tag, Block def) {
         try {
             ObjectOpenHashSet<Block> set = new ObjectOpenHashSet<>(tag.getValues());
@@ -127,6 +134,19 @@ public class Materials {
         }
     }
 
+    private static Set<BlockState> createLightSources() {
+        ReferenceOpenHashSet<BlockState> set = new ReferenceOpenHashSet<>();
+        try (Resource<DummyBlockReader> reader = DummyBlockReader.pooled()) {
+            for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+                reader.get().set(state);
+                if (state.getLightValue(reader.get(), BlockPos.ZERO) != 0) {
+                    set.add(state);
+                }
+            }
+        }
+        return ReferenceSets.unmodifiable(set);
+    }
+
     private static boolean isAbsent(Block block, ITag.INamedTag<Block> a, ITag.INamedTag<Block> b) {
         if (!b.contains(block)) {
             Log.info("Block {} is in tag {} but not tag {}. It has been excluded from TerraForged's rock layer generation!", block.getRegistryName(), a.getName(), b.getName());
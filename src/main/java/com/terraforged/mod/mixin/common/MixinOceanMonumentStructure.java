@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.mixin.common;
+
+import com.terraforged.mod.biome.provider.TFBiomeProvider;
+import net.minecraft.util.SharedSeedRandom;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.provider.BiomeProvider;
+import net.minecraft.world.gen.ChunkGenerator;
+import net.minecraft.world.gen.feature.NoFeatureConfig;
+import net.minecraft.world.gen.feature.structure.OceanMonumentStructure;
+import net.minecraft.world.gen.feature.structure.Structure;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Non-essential.
+ * Performs the monument's biome checks with early-exit queries on our BiomeProvider instead
+ * of collecting every biome within the (large) search radii.
+ */
+@Mixin(OceanMonumentStructure.class)
+public class MixinOceanMonumentStructure {
+
+    @Inject(method = "isFeatureChunk", at = @At("HEAD"), cancellable = true)
+    private void onIsFeatureChunk(ChunkGenerator generator, BiomeProvider biomeSource, long seed, SharedSeedRandom random, int chunkX, int chunkZ, Biome biome, ChunkPos pos, NoFeatureConfig config, CallbackInfoReturnable<Boolean> cir) {
+        if (biomeSource instanceof TFBiomeProvider) {
+            TFBiomeProvider biomeProvider = (TFBiomeProvider) biomeSource;
+            Structure<?> structure = (Structure<?>) (Object) this;
+            int x = chunkX * 16 + 9;
+            int z = chunkZ * 16 + 9;
+            cir.setReturnValue(biomeProvider.allBiomesWithin(x, z, 16, b -> b.getGenerationSettings().isValidStart(structure))
+                    && biomeProvider.allBiomesWithin(x, z, 29, MixinOceanMonumentStructure::isOceanOrRiver));
+        }
+    }
+
+    private static boolean isOceanOrRiver(Biome biome) {
+        return biome.getBiomeCategory() == Biome.Category.OCEAN || biome.getBiomeCategory() == Biome.Category.RIVER;
+    }
+}
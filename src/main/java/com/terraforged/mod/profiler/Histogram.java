@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.profiler;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A log-bucketed latency histogram in the style of HdrHistogram.
+ *
+ * Each power of two is divided into 8 linear sub-buckets, giving a relative error of at most 12.5% across the full
+ * range of long values. Values are recorded into a fixed set of stripes chosen by the recording thread, so threads
+ * rarely contend and the histogram's size doesn't grow with the number of threads that have ever recorded. The
+ * stripes are merged when a Snapshot is taken.
+ */
+public class Histogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int SUB_MASK = SUB_COUNT - 1;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+    private static final int STRIPES = 16;
+    private static final int STRIPE_MASK = STRIPES - 1;
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+
+    public Histogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    public void record(long value) {
+        int stripe = (int) HashCommon.mix(Thread.currentThread().getId()) & STRIPE_MASK;
+        stripes[stripe].getAndIncrement(getIndex(value));
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return new Snapshot(counts);
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                stripe.set(i, 0L);
+            }
+        }
+    }
+
+    private static int getIndex(long value) {
+        if (value < SUB_COUNT) {
+            return (int) Math.max(0, value);
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & SUB_MASK;
+        return (shift + 1) * SUB_COUNT + sub;
+    }
+
+    // The largest value that falls into the given bucket
+    private static long getValue(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_COUNT - 1;
+        long sub = SUB_COUNT + (index & SUB_MASK);
+        return (sub << shift) + (1L << shift) - 1;
+    }
+
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long total;
+
+        private Snapshot(long[] counts) {
+            long total = 0L;
+            for (long count : counts) {
+                total += count;
+            }
+            this.counts = counts;
+            this.total = total;
+        }
+
+        public long count() {
+            return total;
+        }
+
+        public long percentile(double percentile) {
+            if (total == 0) {
+                return 0L;
+            }
+
+            long target = Math.max(1L, (long) Math.ceil(total * percentile / 100D));
+            long cumulative = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= target) {
+                    return getValue(i);
+                }
+            }
+
+            return getValue(counts.length - 1);
+        }
+
+        public double percentileMS(double percentile) {
+            return percentile(percentile) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -24,6 +24,7 @@
 
 package com.terraforged.mod.profiler;
 
+import com.terraforged.mod.profiler.trace.ChunkTrace;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraft.util.text.TextFormatting;
@@ -36,7 +37,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 public enum Profiler {
     STRUCTURE_STARTS("structure starts"),
@@ -50,11 +52,13 @@ public enum Profiler {
     MOB_SPAWNS("mob spawns"),
     ;
 
-    private final AtomicLong time = new AtomicLong();
-    private final AtomicLong hits = new AtomicLong();
-    private final AtomicLong longest = new AtomicLong();
-    private final AtomicLong shortest = new AtomicLong(Long.MAX_VALUE);
-    private final ThreadLocal<Section> section = ThreadLocal.withInitial(ProfilerSection::new);
+    // Totals & min/max are striped so that worker threads don't contend when punching out
+    private final LongAdder time = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAccumulator longest = new LongAccumulator(Math::max, 0L);
+    private final LongAccumulator shortest = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final Histogram histogram = new Histogram();
+    private final ThreadLocal<ProfilerSection> section = ThreadLocal.withInitial(ProfilerSection::new);
 
     private final String reportDescription;
 
@@ -70,12 +74,16 @@ public enum Profiler {
         return section.get().punchIn();
     }
 
+    public Section punchIn(int chunkX, int chunkZ) {
+        return section.get().punchIn(chunkX, chunkZ);
+    }
+
     public void punchOut() {
         section.get().close();
     }
 
     public long timeMS() {
-        return TimeUnit.NANOSECONDS.toMillis(time.get());
+        return TimeUnit.NANOSECONDS.toMillis(time.sum());
     }
 
     public long minMS() {
@@ -91,19 +99,24 @@ public enum Profiler {
     }
 
     public long hits() {
-        return hits.get();
+        return hits.sum();
     }
 
     public double averageMS() {
         return timeMS() / Math.max(1.0, hits());
     }
 
+    public Histogram.Snapshot latencies() {
+        return histogram.snapshot();
+    }
+
     public ITextComponent toText() {
+        Histogram.Snapshot latencies = latencies();
         return new StringTextComponent(name().toLowerCase())
-                .append(new StringTextComponent(String.format(": %.3fms", averageMS()))
+                .append(new StringTextComponent(String.format(": %.3fms, p99: %.3fms", averageMS(), latencies.percentileMS(99)))
                         .withStyle(style -> style.withColor(TextFormatting.WHITE)))
                 .withStyle(style -> style.withColor(TextFormatting.YELLOW)
-                        .withHoverEvent(createHoverStats(minMS(), maxMS())));
+                        .withHoverEvent(createHoverStats(minMS(), maxMS(), latencies)));
     }
 
     public static Profiler get(GenerationStage.Carving stage) {
@@ -116,12 +129,26 @@ public enum Profiler {
                 new StringTextComponent(message).withStyle(s -> s.withColor(TextFormatting.WHITE)));
     }
 
+    public static HoverEvent createHoverStats(long min, long max, Histogram.Snapshot latencies) {
+        String message = String.format("Min: %sms, Max: %sms\nP50: %.3fms, P90: %.3fms, P99: %.3fms, P99.9: %.3fms",
+                min,
+                max,
+                latencies.percentileMS(50),
+                latencies.percentileMS(90),
+                latencies.percentileMS(99),
+                latencies.percentileMS(99.9)
+        );
+        return new HoverEvent(HoverEvent.Action.SHOW_TEXT,
+                new StringTextComponent(message).withStyle(s -> s.withColor(TextFormatting.WHITE)));
+    }
+
     public static void reset() {
         for (Profiler profiler : Profiler.values()) {
-            profiler.time.set(0);
-            profiler.hits.set(0);
-            profiler.longest.set(0);
-            profiler.shortest.set(Long.MAX_VALUE);
+            profiler.time.reset();
+            profiler.hits.reset();
+            profiler.longest.reset();
+            profiler.shortest.reset();
+            profiler.histogram.reset();
         }
     }
 
@@ -146,9 +173,24 @@ public enum Profiler {
     private class ProfilerSection implements Section {
 
         private long timestamp = 0L;
+        private boolean traced = false;
+        private int chunkX = 0;
+        private int chunkZ = 0;
 
         @Override
         public Section punchIn() {
+            traced = false;
+            timestamp = System.nanoTime();
+            return this;
+        }
+
+        private Section punchIn(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.traced = ChunkTrace.isRecording();
+            if (traced) {
+                ChunkTrace.begin();
+            }
             timestamp = System.nanoTime();
             return this;
         }
@@ -156,22 +198,21 @@ public enum Profiler {
         @Override
         public void close() {
             long duration = System.nanoTime() - timestamp;
-            time.addAndGet(duration);
-            hits.incrementAndGet();
+            time.add(duration);
+            hits.increment();
+            histogram.record(duration);
 
-            if (duration <= 0) {
-                return;
+            if (traced) {
+                traced = false;
+                ChunkTrace.record(Profiler.this, chunkX, chunkZ, duration);
             }
 
-            long max = longest.get();
-            if (duration > max) {
-                longest.compareAndSet(max, duration);
+            if (duration <= 0) {
+                return;
             }
 
-            long min = shortest.get();
-            if (duration < min) {
-                shortest.compareAndSet(min, duration);
-            }
+            longest.accumulate(duration);
+            shortest.accumulate(duration);
         }
     }
 }
@@ -30,14 +30,14 @@ import java.util.Locale;
 
 public class ProfilerPrinter {
 
-    private static final String FORMAT = "%1$-20s%2$-11s%3$-11s%4$-11s%5$-11s%6$-1s";
+    private static final String FORMAT = "%1$-20s%2$-11s%3$-11s%4$-11s%5$-11s%6$-11s%7$-11s%8$-11s%9$-11s%10$-1s";
 
     public static void print(Writer writer) throws IOException {
         print(writer, "");
     }
 
     public static void print(Writer writer, String indent) throws IOException {
-        writer.append(indent).append(String.format(FORMAT, "Section", "Count", "Time MS", "Min MS", "Max MS", "Average MS"));
+        writer.append(indent).append(String.format(FORMAT, "Section", "Count", "Time MS", "Min MS", "Max MS", "P50 MS", "P90 MS", "P99 MS", "P99.9 MS", "Average MS"));
 
         // table contents
         double averageSum = 0.0;
@@ -48,11 +48,16 @@ public class ProfilerPrinter {
             long min = profiler.minMS();
             long max = profiler.maxMS();
             double average = profiler.averageMS();
-            writer.append("\n").append(indent).append(String.format(FORMAT, name, hits, time, min, max, fmt(average)));
+            Histogram.Snapshot latencies = profiler.latencies();
+            String p50 = fmt(latencies.percentileMS(50));
+            String p90 = fmt(latencies.percentileMS(90));
+            String p99 = fmt(latencies.percentileMS(99));
+            String p999 = fmt(latencies.percentileMS(99.9));
+            writer.append("\n").append(indent).append(String.format(FORMAT, name, hits, time, min, max, p50, p90, p99, p999, fmt(average)));
             averageSum += average;
         }
 
-        writer.append("\n").append(indent).append(String.format(FORMAT, "Sum", "", "", "", "", fmt(averageSum)));
+        writer.append("\n").append(indent).append(String.format(FORMAT, "Sum", "", "", "", "", "", "", "", "", fmt(averageSum)));
     }
 
 
@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.profiler.trace;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.terraforged.mod.Log;
+import com.terraforged.mod.profiler.Profiler;
+import com.terraforged.mod.profiler.timings.TimingStack;
+import com.terraforged.mod.profiler.timings.Top3TimingStack;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in recorder of per-chunk generation timings.
+ *
+ * While recording, every Profiler section that is punched in for a chunk writes one JSON line to the trace file on
+ * close, containing the chunk position, the stage, its duration, the outcome of the last tile lookup made by the
+ * thread during the stage (hit/miss/regenerated) and the slowest features & structures placed during the stage.
+ */
+public class ChunkTrace {
+
+    public static final int TILE_NONE = 0;
+    public static final int TILE_HIT = 1;
+    public static final int TILE_MISS = 2;
+    public static final int TILE_REGENERATED = 3;
+
+    private static final String[] TILE_OUTCOMES = {"none", "hit", "miss", "regenerated"};
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+    private static final Object LOCK = new Object();
+
+    private static volatile boolean recording = false;
+    private static BufferedWriter writer = null;
+    private static Path file = null;
+    private static long records = 0L;
+
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    public static void start(Path path) throws IOException {
+        synchronized (LOCK) {
+            stop();
+            Files.createDirectories(path.getParent());
+            writer = Files.newBufferedWriter(path);
+            file = path;
+            records = 0L;
+            recording = true;
+            Log.info("Started chunk trace: {}", path);
+        }
+    }
+
+    public static long stop() {
+        synchronized (LOCK) {
+            recording = false;
+            if (writer == null) {
+                return 0L;
+            }
+
+            try {
+                writer.close();
+            } catch (IOException e) {
+                Log.err("Failed to close chunk trace: {}", file, e);
+            }
+
+            Log.info("Stopped chunk trace: {} ({} records)", file, records);
+            writer = null;
+            file = null;
+            return records;
+        }
+    }
+
+    public static long records() {
+        synchronized (LOCK) {
+            return records;
+        }
+    }
+
+    // Resets the calling thread's tile & feature state at the start of a traced section
+    public static void begin() {
+        STATE.get().reset();
+    }
+
+    public static void tile(int outcome) {
+        if (recording) {
+            STATE.get().tile = outcome;
+        }
+    }
+
+    public static void feature(String type, Object identity, long durationMS) {
+        if (recording) {
+            STATE.get().features.push(type, identity, durationMS);
+        }
+    }
+
+    public static void record(Profiler stage, int chunkX, int chunkZ, long durationNS) {
+        if (!recording) {
+            return;
+        }
+
+        State state = STATE.get();
+
+        JsonObject json = new JsonObject();
+        json.addProperty("x", chunkX);
+        json.addProperty("z", chunkZ);
+        json.addProperty("stage", stage.name().toLowerCase(Locale.ROOT));
+        json.addProperty("us", TimeUnit.NANOSECONDS.toMicros(durationNS));
+        json.addProperty("tile", TILE_OUTCOMES[state.tile]);
+
+        if (state.features.size() > 0) {
+            JsonArray features = new JsonArray();
+            state.features.iterate(features, ChunkTrace::addFeature);
+            json.add("top", features);
+        }
+
+        state.reset();
+
+        String line = json.toString();
+        synchronized (LOCK) {
+            if (writer == null) {
+                return;
+            }
+
+            try {
+                writer.write(line);
+                writer.newLine();
+                records++;
+            } catch (IOException e) {
+                Log.err("Failed to write chunk trace, stopping", e);
+                recording = false;
+            }
+        }
+    }
+
+    private static void addFeature(String type, Object identity, long time, JsonArray features) {
+        JsonObject feature = new JsonObject();
+        feature.addProperty("type", type);
+        feature.addProperty("id", String.valueOf(identity));
+        feature.addProperty("ms", time);
+        features.add(feature);
+    }
+
+    private static class State {
+
+        private int tile = TILE_NONE;
+        private final TimingStack features = new Top3TimingStack();
+
+        private void reset() {
+            tile = TILE_NONE;
+            features.reset();
+        }
+    }
+}
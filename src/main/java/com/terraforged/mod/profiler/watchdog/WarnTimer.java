@@ -24,6 +24,8 @@
 
 package com.terraforged.mod.profiler.watchdog;
 
+import com.terraforged.mod.profiler.trace.ChunkTrace;
+
 public class WarnTimer {
 
     private final long warnTime;
@@ -33,14 +35,19 @@ public class WarnTimer {
     }
 
     public long now() {
-        return warnTime > 0 ? System.currentTimeMillis() : 0L;
+        return isTiming() ? System.currentTimeMillis() : 0L;
     }
 
     public long since(long timestamp) {
-        return warnTime > 0 ? System.currentTimeMillis() - timestamp : 0L;
+        return isTiming() ? System.currentTimeMillis() - timestamp : 0L;
     }
 
     public boolean warn(long duration) {
-        return duration > warnTime;
+        return warnTime > 0 && duration > warnTime;
+    }
+
+    // Features are also timed while a chunk trace is being recorded
+    private boolean isTiming() {
+        return warnTime > 0 || ChunkTrace.isRecording();
     }
 }
@@ -27,10 +27,17 @@ package com.terraforged.mod.server;
 import com.terraforged.engine.concurrent.thread.ThreadPools;
 import com.terraforged.mod.Log;
 import com.terraforged.mod.TerraForgedMod;
+import com.terraforged.mod.chunk.TFChunkGenerator;
+import com.terraforged.mod.chunk.tile.TileMemoryPolicy;
+import com.terraforged.mod.chunk.tile.TileStore;
 import com.terraforged.mod.featuremanager.data.FolderDataPackFinder;
 import com.terraforged.mod.profiler.Profiler;
+import com.terraforged.mod.profiler.trace.ChunkTrace;
 import net.minecraft.resources.ResourcePackList;
+import net.minecraft.world.gen.ChunkGenerator;
+import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
@@ -40,10 +47,23 @@ import java.io.File;
 @Mod.EventBusSubscriber(bus = Mod.EventBusSubscriber.Bus.FORGE)
 public class ServerEvents {
 
+    @SubscribeEvent
+    public static void worldLoad(WorldEvent.Load event) {
+        if (event.getWorld() instanceof ServerWorld) {
+            ChunkGenerator generator = ((ServerWorld) event.getWorld()).getChunkSource().getGenerator();
+            if (generator instanceof TFChunkGenerator) {
+                ((TFChunkGenerator) generator).prepareStrongholds();
+            }
+        }
+    }
+
     @SubscribeEvent
     public static void serverStop(FMLServerStoppedEvent event) {
         File dir = event.getServer().getFile("dumps");
         Profiler.dump(dir);
+        TileStore.closeAll();
+        TileMemoryPolicy.stopListening();
+        ChunkTrace.stop();
     }
 
     public static void addPackFinder(ResourcePackList packList) {
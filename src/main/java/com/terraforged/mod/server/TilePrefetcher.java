@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.server;
+
+import com.terraforged.mod.chunk.TFChunkGenerator;
+import com.terraforged.mod.chunk.tile.TileScheduler;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.gen.ChunkGenerator;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Prefetches the heightmap tiles ahead of fast moving players so that they are ready by the time the server starts
+ * generating the chunks along their path.
+ *
+ * Player motion isn't simulated server-side so each player's velocity is taken from the change in their position
+ * since the previous sample. The predicted path is then walked out to a fixed number of ticks ahead and the region
+ * under each step is handed to the TileScheduler, which limits how many prefetched tiles can be outstanding.
+ */
+@Mod.EventBusSubscriber(bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class TilePrefetcher {
+
+    private static final int INTERVAL = 10;
+    private static final int LOOKAHEAD_TICKS = 100;
+    private static final int FLYING_LOOKAHEAD_TICKS = 200;
+    private static final double STEP_SIZE = 32;
+    // Roughly the speed of a horse, below which chunk generation keeps up without prefetching
+    private static final double MIN_SPEED = 0.4;
+    // Faster than rocket-boosted elytra flight, so most likely a teleport
+    private static final double MAX_SPEED = 5.0;
+
+    // Only accessed from the server thread
+    private static final Map<ServerPlayerEntity, Track> TRACKS = new WeakHashMap<>();
+
+    @SubscribeEvent
+    public static void tick(TickEvent.WorldTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(event.world instanceof ServerWorld)) {
+            return;
+        }
+
+        ServerWorld world = (ServerWorld) event.world;
+        if (world.getGameTime() % INTERVAL != 0 || world.players().isEmpty()) {
+            return;
+        }
+
+        ChunkGenerator generator = world.getChunkSource().getGenerator();
+        if (!(generator instanceof TFChunkGenerator)) {
+            return;
+        }
+
+        TileScheduler scheduler = ((TFChunkGenerator) generator).getTileScheduler();
+        for (ServerPlayerEntity player : world.players()) {
+            Track track = TRACKS.computeIfAbsent(player, p -> new Track());
+            if (track.update(player, world.getGameTime())) {
+                prefetch(scheduler, player, track);
+            }
+        }
+    }
+
+    private static void prefetch(TileScheduler scheduler, ServerPlayerEntity player, Track track) {
+        double speed = Math.sqrt(track.velocityX * track.velocityX + track.velocityZ * track.velocityZ);
+        if (speed < MIN_SPEED || speed > MAX_SPEED) {
+            return;
+        }
+
+        int ticks = player.isFallFlying() ? FLYING_LOOKAHEAD_TICKS : LOOKAHEAD_TICKS;
+        double distance = speed * ticks;
+        double stepX = (track.velocityX / speed) * STEP_SIZE;
+        double stepZ = (track.velocityZ / speed) * STEP_SIZE;
+
+        // Walk outwards from the player so that the nearest tiles get the prefetch budget first
+        int steps = MathHelper.ceil(distance / STEP_SIZE);
+        for (int i = 1; i <= steps; i++) {
+            int chunkX = MathHelper.floor(track.x + stepX * i) >> 4;
+            int chunkZ = MathHelper.floor(track.z + stepZ * i) >> 4;
+            scheduler.prefetchChunk(chunkX, chunkZ);
+        }
+    }
+
+    private static class Track {
+
+        private long time = -1;
+        private double x;
+        private double z;
+        private double velocityX;
+        private double velocityZ;
+
+        private boolean update(ServerPlayerEntity player, long now) {
+            double px = player.getX();
+            double pz = player.getZ();
+
+            boolean valid = time != -1 && now > time;
+            if (valid) {
+                double ticks = now - time;
+                velocityX = (px - x) / ticks;
+                velocityZ = (pz - z) / ticks;
+            }
+
+            time = now;
+            x = px;
+            z = pz;
+            return valid;
+        }
+    }
+}
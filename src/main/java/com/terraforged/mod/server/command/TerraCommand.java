@@ -26,6 +26,7 @@ package com.terraforged.mod.server.command;
 
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
@@ -36,18 +37,26 @@ import com.terraforged.engine.concurrent.Resource;
 import com.terraforged.engine.world.WorldGenerator;
 import com.terraforged.engine.world.terrain.Terrain;
 import com.terraforged.mod.Log;
+import com.terraforged.mod.TerraForgedMod;
+import com.terraforged.mod.biome.provider.BiomeCache;
 import com.terraforged.mod.biome.provider.TFBiomeProvider;
 import com.terraforged.mod.chunk.TFChunkGenerator;
 import com.terraforged.mod.chunk.TerraContext;
 import com.terraforged.mod.chunk.settings.preset.Preset;
 import com.terraforged.mod.chunk.settings.preset.PresetManager;
+import com.terraforged.mod.chunk.tile.ReaderTracker;
+import com.terraforged.mod.chunk.tile.TileMemoryPolicy;
+import com.terraforged.mod.chunk.tile.TileScheduler;
 import com.terraforged.mod.data.DataGen;
 import com.terraforged.mod.profiler.Profiler;
+import com.terraforged.mod.profiler.trace.ChunkTrace;
 import com.terraforged.mod.server.command.arg.TerrainArgType;
 import com.terraforged.mod.server.command.search.BiomeSearchTask;
 import com.terraforged.mod.server.command.search.BothSearchTask;
 import com.terraforged.mod.server.command.search.Search;
 import com.terraforged.mod.server.command.search.TerrainSearchTask;
+import com.terraforged.mod.server.pregen.PregenManager;
+import com.terraforged.mod.server.pregen.Pregenerator;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
 import net.minecraft.command.arguments.ArgumentSerializer;
@@ -74,13 +83,17 @@ import net.minecraft.world.biome.ColumnFuzzedBiomeMagnifier;
 import net.minecraft.world.biome.provider.BiomeProvider;
 import net.minecraft.world.gen.ChunkGenerator;
 import net.minecraft.world.server.ServerWorld;
+import net.minecraft.world.storage.FolderName;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
@@ -117,7 +130,28 @@ public class TerraCommand {
                         .then(Commands.literal("reset")
                                 .executes(TerraCommand::benchmarkStart))
                         .then(Commands.literal("stats")
-                                .executes(TerraCommand::benchmarkStats)))
+                                .executes(TerraCommand::benchmarkStats))
+                        .then(Commands.literal("trace")
+                                .then(Commands.literal("start")
+                                        .executes(TerraCommand::traceStart))
+                                .then(Commands.literal("stop")
+                                        .executes(TerraCommand::traceStop)))
+                        .then(Commands.literal("readers")
+                                .executes(context -> readers(context, 30))
+                                .then(Commands.argument("seconds", IntegerArgumentType.integer(0))
+                                        .executes(context -> readers(context, IntegerArgumentType.getInteger(context, "seconds"))))))
+                .then(Commands.literal("pregen")
+                        .then(Commands.literal("start")
+                                .then(Commands.argument("radius", IntegerArgumentType.integer(16, 30_000_000))
+                                        .executes(context -> pregenStart(context, PregenManager.DEFAULT_WORKERS))
+                                        .then(Commands.argument("workers", IntegerArgumentType.integer(1, PregenManager.MAX_WORKERS))
+                                                .executes(context -> pregenStart(context, IntegerArgumentType.getInteger(context, "workers"))))))
+                        .then(Commands.literal("resume")
+                                .executes(TerraCommand::pregenResume))
+                        .then(Commands.literal("stop")
+                                .executes(TerraCommand::pregenStop))
+                        .then(Commands.literal("status")
+                                .executes(TerraCommand::pregenStatus)))
                 .then(Commands.literal("query")
                         .executes(TerraCommand::query))
                 .then(Commands.literal("data")
@@ -164,6 +198,11 @@ public class TerraCommand {
 
     private static int benchmarkStart(CommandContext<CommandSource> context) throws CommandSyntaxException {
         Profiler.reset();
+        ChunkGenerator generator = getChunkGenerator(context);
+        if (generator instanceof TFChunkGenerator) {
+            ((TFChunkGenerator) generator).getTileScheduler().resetStats();
+            ((TFChunkGenerator) generator).getBiomeSource().getBiomeCache().resetStats();
+        }
         context.getSource().sendSuccess(createText("Reset profiler"), false);
         return Command.SINGLE_SUCCESS;
     }
@@ -186,6 +225,126 @@ public class TerraCommand {
                 .append(String.format(": %.3fms", average))
                 .withStyle(style -> style.withHoverEvent(Profiler.createHoverStats(min, max))),false);
 
+        ChunkGenerator generator = getChunkGenerator(context);
+        if (generator instanceof TFChunkGenerator) {
+            TileScheduler scheduler = ((TFChunkGenerator) generator).getTileScheduler();
+            context.getSource().sendSuccess(createText("Tiles", PREFIX_FORMAT)
+                    .append(String.format(": hits=%s, misses=%s, regenerated=%s, queued=%s, pending regions=%s, prefetched=%s (used=%s, outstanding=%s)",
+                            scheduler.hits(),
+                            scheduler.misses(),
+                            scheduler.regenerations(),
+                            scheduler.queued(),
+                            scheduler.pendingRegions(),
+                            scheduler.prefetches(),
+                            scheduler.prefetchHits(),
+                            scheduler.outstandingPrefetches())), false);
+
+            TileMemoryPolicy memory = scheduler.getMemoryPolicy();
+            context.getSource().sendSuccess(createText("Tile Memory", PREFIX_FORMAT)
+                    .append(String.format(": tiles=%s/%s, size=%smb/%smb, pressure=%s",
+                            memory.tiles(),
+                            memory.maxTiles(),
+                            memory.bytes() >> 20,
+                            memory.budgetBytes() >> 20,
+                            memory.isUnderPressure())), false);
+
+            BiomeCache biomeCache = ((TFChunkGenerator) generator).getBiomeSource().getBiomeCache();
+            context.getSource().sendSuccess(createText("Biome Cache", PREFIX_FORMAT)
+                    .append(String.format(": hits=%s, misses=%s, contended=%s, patch hits=%s, patches filled=%s",
+                            biomeCache.hits(),
+                            biomeCache.misses(),
+                            biomeCache.contention(),
+                            biomeCache.getPatchCache().hits(),
+                            biomeCache.getPatchCache().fills())), false);
+        }
+
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int traceStart(CommandContext<CommandSource> context) throws CommandSyntaxException {
+        Path dir = context.getSource().getServer().getWorldPath(FolderName.ROOT).resolve(TerraForgedMod.MODID).resolve("traces");
+        Path file = dir.resolve("trace-" + System.currentTimeMillis() + ".jsonl");
+        try {
+            ChunkTrace.start(file);
+        } catch (IOException e) {
+            throw createException("trace", "Failed to create trace file: %s", e.getMessage());
+        }
+        context.getSource().sendSuccess(createText("Started chunk trace: " + file.getFileName()), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int traceStop(CommandContext<CommandSource> context) throws CommandSyntaxException {
+        if (!ChunkTrace.isRecording()) {
+            throw createException("trace", "No chunk trace is being recorded");
+        }
+        long records = ChunkTrace.stop();
+        context.getSource().sendSuccess(createText(String.format("Stopped chunk trace (%s records)", records)), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int readers(CommandContext<CommandSource> context, int seconds) throws CommandSyntaxException {
+        ReaderTracker tracker = getTFChunkGenerator(context).getTileScheduler().getReaderTracker();
+        if (!tracker.isEnabled()) {
+            throw createException("readers", "Reader tracking is disabled, restart with -DtrackReaders to enable it");
+        }
+
+        context.getSource().sendSuccess(createText("Acquired by", PREFIX_FORMAT)
+                .append(": " + tracker.getStageCounts()), false);
+
+        List<String> pinned = tracker.getPinned(seconds);
+        context.getSource().sendSuccess(createText("Pinned Tiles", PREFIX_FORMAT)
+                .append(String.format(": %s held for longer than %ss", pinned.size(), seconds)), false);
+
+        for (String region : pinned) {
+            context.getSource().sendSuccess(createText(" - " + region), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int pregenStart(CommandContext<CommandSource> context, int workers) throws CommandSyntaxException {
+        TFChunkGenerator generator = getTFChunkGenerator(context);
+        ServerWorld world = context.getSource().getLevel();
+        BlockPos center = new BlockPos(context.getSource().getPosition());
+        int radius = IntegerArgumentType.getInteger(context, "radius") >> 4;
+
+        if (!PregenManager.start(world, generator, center.getX() >> 4, center.getZ() >> 4, radius, workers)) {
+            throw createException("pregen", "Pre-generation is already running in this dimension");
+        }
+
+        context.getSource().sendSuccess(createText("Started pre-generation around ")
+                .append(createTeleportMessage(center))
+                .append(new StringTextComponent(String.format(" (radius: %s chunks, workers: %s)", radius, workers))), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int pregenResume(CommandContext<CommandSource> context) throws CommandSyntaxException {
+        TFChunkGenerator generator = getTFChunkGenerator(context);
+        if (!PregenManager.resume(context.getSource().getLevel(), generator)) {
+            throw createException("pregen", "Pre-generation is already running or there is no checkpoint to resume from");
+        }
+        context.getSource().sendSuccess(createText("Resumed pre-generation"), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int pregenStop(CommandContext<CommandSource> context) throws CommandSyntaxException {
+        if (!PregenManager.stop(context.getSource().getLevel())) {
+            throw createException("pregen", "Pre-generation is not running in this dimension");
+        }
+        context.getSource().sendSuccess(createText("Stopped pre-generation. Use '/terra pregen resume' to continue"), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int pregenStatus(CommandContext<CommandSource> context) throws CommandSyntaxException {
+        Pregenerator pregenerator = PregenManager.get(context.getSource().getLevel());
+        if (pregenerator == null) {
+            throw createException("pregen", "Pre-generation is not running in this dimension");
+        }
+        context.getSource().sendSuccess(createText("Pre-generation", PREFIX_FORMAT)
+                .append(String.format(": %s/%s chunks (%.2f%%), in-flight: %s",
+                        pregenerator.getCompleted(),
+                        pregenerator.getTotal(),
+                        pregenerator.getProgress(),
+                        pregenerator.getInFlight())), false);
         return Command.SINGLE_SUCCESS;
     }
 
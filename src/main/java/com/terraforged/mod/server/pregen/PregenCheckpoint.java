@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.server.pregen;
+
+import com.terraforged.mod.Log;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+public class PregenCheckpoint {
+
+    public final int centerX;
+    public final int centerZ;
+    public final int radius;
+    public final int workers;
+    public final long index;
+
+    public PregenCheckpoint(int centerX, int centerZ, int radius, int workers, long index) {
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.workers = workers;
+        this.index = index;
+    }
+
+    public PregenCheckpoint withIndex(long index) {
+        return new PregenCheckpoint(centerX, centerZ, radius, workers, index);
+    }
+
+    public PregenSpiral createSpiral() {
+        return new PregenSpiral(centerX, centerZ, radius).skip(index);
+    }
+
+    public void save(File file) {
+        CompoundNBT tag = new CompoundNBT();
+        tag.putInt("center_x", centerX);
+        tag.putInt("center_z", centerZ);
+        tag.putInt("radius", radius);
+        tag.putInt("workers", workers);
+        tag.putLong("index", index);
+
+        try {
+            File dir = file.getParentFile();
+            if (!dir.exists() && !dir.mkdirs()) {
+                Log.err("Unable to make directory {}", dir);
+                return;
+            }
+
+            // write to a temp file first so that a crash mid-write can't corrupt the last good checkpoint
+            File temp = new File(dir, file.getName() + ".tmp");
+            CompressedStreamTools.write(tag, temp);
+            // swap it in with a single atomic move so there's never a moment without a checkpoint on disk
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Log.err("Failed to save pre-generation checkpoint {}: {}", file, e);
+        }
+    }
+
+    @Nullable
+    public static PregenCheckpoint load(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            CompoundNBT tag = CompressedStreamTools.read(file);
+            if (tag == null) {
+                return null;
+            }
+
+            return new PregenCheckpoint(
+                    tag.getInt("center_x"),
+                    tag.getInt("center_z"),
+                    tag.getInt("radius"),
+                    tag.getInt("workers"),
+                    tag.getLong("index")
+            );
+        } catch (IOException e) {
+            Log.err("Failed to load pre-generation checkpoint {}: {}", file, e);
+            return null;
+        }
+    }
+
+    public static void delete(File file) {
+        if (file.exists() && !file.delete()) {
+            Log.err("Unable to delete pre-generation checkpoint {}", file);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.server.pregen;
+
+import com.terraforged.mod.Log;
+import com.terraforged.mod.TerraForgedMod;
+import com.terraforged.mod.chunk.TFChunkGenerator;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraft.world.storage.FolderName;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Mod.EventBusSubscriber(bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class PregenManager {
+
+    // Chunks in-flight per worker-gen thread. Keeps the world-gen executor saturated without unbounded memory growth
+    public static final int DEFAULT_WORKERS = Runtime.getRuntime().availableProcessors() * 4;
+    public static final int MAX_WORKERS = 1024;
+
+    private static final Map<RegistryKey<World>, Pregenerator> TASKS = new ConcurrentHashMap<>();
+
+    @SubscribeEvent
+    public static void tick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || TASKS.isEmpty()) {
+            return;
+        }
+
+        Iterator<Pregenerator> iterator = TASKS.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().tick()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void serverStopping(FMLServerStoppingEvent event) {
+        for (Pregenerator pregenerator : TASKS.values()) {
+            pregenerator.stop();
+        }
+        TASKS.clear();
+    }
+
+    public static boolean start(ServerWorld world, TFChunkGenerator generator, int centerX, int centerZ, int radius, int workers) {
+        if (TASKS.containsKey(world.dimension())) {
+            return false;
+        }
+
+        File file = getCheckpointFile(world);
+        PregenCheckpoint checkpoint = new PregenCheckpoint(centerX, centerZ, radius, workers, 0L);
+        checkpoint.save(file);
+
+        Log.info("Starting pre-generation for {}: center={},{} radius={} workers={}", world.dimension().location(), centerX, centerZ, radius, workers);
+        TASKS.put(world.dimension(), new Pregenerator(world, generator, checkpoint, file));
+        return true;
+    }
+
+    public static boolean resume(ServerWorld world, TFChunkGenerator generator) {
+        if (TASKS.containsKey(world.dimension())) {
+            return false;
+        }
+
+        File file = getCheckpointFile(world);
+        PregenCheckpoint checkpoint = PregenCheckpoint.load(file);
+        if (checkpoint == null) {
+            return false;
+        }
+
+        Log.info("Resuming pre-generation for {} from chunk {}", world.dimension().location(), checkpoint.index);
+        TASKS.put(world.dimension(), new Pregenerator(world, generator, checkpoint, file));
+        return true;
+    }
+
+    public static boolean stop(ServerWorld world) {
+        Pregenerator pregenerator = TASKS.remove(world.dimension());
+        if (pregenerator == null) {
+            return false;
+        }
+        pregenerator.stop();
+        return true;
+    }
+
+    @Nullable
+    public static Pregenerator get(ServerWorld world) {
+        return TASKS.get(world.dimension());
+    }
+
+    private static File getCheckpointFile(ServerWorld world) {
+        String name = world.dimension().location().toString().replace(':', '_').replace('/', '_');
+        File dir = world.getServer().getWorldPath(FolderName.ROOT).resolve(TerraForgedMod.MODID).resolve("pregen").toFile();
+        return new File(dir, name + ".dat");
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.server.pregen;
+
+/**
+ * Walks the chunks of a square area in an outward spiral from its center. The walk is deterministic so that a
+ * partially completed pre-generation can be resumed from the index of the last completed chunk.
+ */
+public class PregenSpiral {
+
+    private final int centerX;
+    private final int centerZ;
+    private final int radius;
+    private final long size;
+
+    private long index = 0;
+    private int x = 0;
+    private int z = 0;
+    private int dx = 0;
+    private int dz = -1;
+
+    public PregenSpiral(int centerX, int centerZ, int radius) {
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        long length = radius + 1L + radius;
+        this.size = length * length;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long index() {
+        return index;
+    }
+
+    public boolean hasNext() {
+        return index < size;
+    }
+
+    public int chunkX() {
+        return centerX + x;
+    }
+
+    public int chunkZ() {
+        return centerZ + z;
+    }
+
+    /**
+     * Moves the spiral to the next position. The current position is available through chunkX & chunkZ until the
+     * next call.
+     */
+    public PregenSpiral next() {
+        if (index > 0) {
+            if ((x == z) || ((x < 0) && (x == -z)) || ((x > 0) && (x == 1 - z))) {
+                int temp = dx;
+                dx = -dz;
+                dz = temp;
+            }
+            x += dx;
+            z += dz;
+        }
+        index++;
+        return this;
+    }
+
+    public PregenSpiral skip(long count) {
+        for (long i = 0; i < count && hasNext(); i++) {
+            next();
+        }
+        return this;
+    }
+
+    public PregenSpiral copy() {
+        PregenSpiral copy = new PregenSpiral(centerX, centerZ, radius);
+        copy.index = index;
+        copy.x = x;
+        copy.z = z;
+        copy.dx = dx;
+        copy.dz = dz;
+        return copy;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.server.pregen;
+
+import com.terraforged.mod.Log;
+import com.terraforged.mod.chunk.TFChunkGenerator;
+import com.terraforged.mod.chunk.tile.TileScheduler;
+import com.terraforged.mod.profiler.Profiler;
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.server.ServerChunkProvider;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraft.world.server.TicketType;
+
+import java.io.File;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-generates a square area of chunks by walking it in a spiral and holding a ticket on a bounded number of
+ * chunks at a time. The tiles of upcoming chunks are queued ahead of the spiral so that the TileCache can batch their
+ * generation while the current chunks run through the stages of the TFChunkGenerator on the world-gen workers.
+ *
+ * Chunks are driven through the vanilla chunk system rather than a detached primer since the carver, feature and
+ * structure-reference stages read neighbouring chunks and the result needs to be persisted by the chunk manager.
+ */
+public class Pregenerator {
+
+    private static final TicketType<ChunkPos> TICKET = TicketType.create("terraforged_pregen", Comparator.comparingLong(ChunkPos::toLong));
+
+    // Ticket distance 0 = ticket level 33 which takes the chunk through to the FULL status
+    private static final int TICKET_DISTANCE = 0;
+    private static final long REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+    private static final long CHECKPOINT_INTERVAL = TimeUnit.SECONDS.toNanos(30);
+
+    private final File file;
+    private final ServerWorld world;
+    private final TFChunkGenerator generator;
+    private final PregenCheckpoint checkpoint;
+    private final PregenSpiral spiral;
+    private final PregenSpiral lookahead;
+    private final int lookaheadDistance;
+    private final Long2LongLinkedOpenHashMap inFlight;
+    private final long[] stageHits = new long[Profiler.values().length];
+
+    private long completed;
+    private long reportTimestamp;
+    private long reportCompleted;
+    private long checkpointTimestamp;
+
+    public Pregenerator(ServerWorld world, TFChunkGenerator generator, PregenCheckpoint checkpoint, File file) {
+        this.file = file;
+        this.world = world;
+        this.generator = generator;
+        this.checkpoint = checkpoint;
+        this.spiral = checkpoint.createSpiral();
+        this.lookahead = spiral.copy();
+        this.lookaheadDistance = checkpoint.workers * 4;
+        this.inFlight = new Long2LongLinkedOpenHashMap(checkpoint.workers);
+        this.completed = checkpoint.index;
+        this.reportCompleted = completed;
+        this.reportTimestamp = System.nanoTime();
+        this.checkpointTimestamp = reportTimestamp;
+        snapshotStages();
+    }
+
+    public ServerWorld getWorld() {
+        return world;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getTotal() {
+        return spiral.size();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    public float getProgress() {
+        return (100F * completed) / Math.max(1L, spiral.size());
+    }
+
+    /**
+     * Advances the pre-generation. Must be called on the server thread.
+     *
+     * @return true while there is still work remaining
+     */
+    public boolean tick() {
+        ServerChunkProvider chunkSource = world.getChunkSource();
+
+        collectCompleted(chunkSource);
+        submitChunks(chunkSource);
+
+        long now = System.nanoTime();
+        if (now - reportTimestamp > REPORT_INTERVAL) {
+            report(now);
+        }
+
+        if (now - checkpointTimestamp > CHECKPOINT_INTERVAL) {
+            checkpointTimestamp = now;
+            createCheckpoint().save(file);
+        }
+
+        if (spiral.hasNext() || !inFlight.isEmpty()) {
+            return true;
+        }
+
+        Log.info("Pre-generation complete for {}: {} chunks", world.dimension().location(), completed);
+        PregenCheckpoint.delete(file);
+        return false;
+    }
+
+    public void stop() {
+        ServerChunkProvider chunkSource = world.getChunkSource();
+        for (long pos : inFlight.values()) {
+            ChunkPos chunkPos = new ChunkPos(pos);
+            chunkSource.removeRegionTicket(TICKET, chunkPos, TICKET_DISTANCE, chunkPos);
+        }
+        createCheckpoint().save(file);
+        inFlight.clear();
+        Log.info("Stopped pre-generation for {} at {}/{} chunks", world.dimension().location(), completed, spiral.size());
+    }
+
+    private void collectCompleted(ServerChunkProvider chunkSource) {
+        ObjectIterator<Long2LongMap.Entry> iterator = inFlight.long2LongEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.next().getLongValue();
+            int chunkX = ChunkPos.getX(pos);
+            int chunkZ = ChunkPos.getZ(pos);
+            if (chunkSource.getChunkNow(chunkX, chunkZ) != null) {
+                ChunkPos chunkPos = new ChunkPos(chunkX, chunkZ);
+                // Releasing the ticket lets the chunk unload which is when the chunk manager saves it
+                chunkSource.removeRegionTicket(TICKET, chunkPos, TICKET_DISTANCE, chunkPos);
+                iterator.remove();
+                completed++;
+            }
+        }
+    }
+
+    private void submitChunks(ServerChunkProvider chunkSource) {
+        while (inFlight.size() < checkpoint.workers && spiral.hasNext()) {
+            spiral.next();
+            queueTiles();
+
+            ChunkPos chunkPos = new ChunkPos(spiral.chunkX(), spiral.chunkZ());
+            chunkSource.addRegionTicket(TICKET, chunkPos, TICKET_DISTANCE, chunkPos);
+            inFlight.put(spiral.index() - 1, chunkPos.toLong());
+        }
+    }
+
+    // Keeps the lookahead spiral ahead of the main spiral so tiles are requested before their chunks are.
+    // Prefetched rather than queued: the chunks queue themselves at structure starts, and each queued chunk must be
+    // matched by exactly one completeChunk for its region's slot to be released
+    private void queueTiles() {
+        TileScheduler scheduler = generator.getTileScheduler();
+        long target = Math.min(lookahead.size(), spiral.index() + lookaheadDistance);
+        while (lookahead.index() < target) {
+            lookahead.next();
+            scheduler.prefetchChunk(lookahead.chunkX(), lookahead.chunkZ());
+        }
+    }
+
+    private PregenCheckpoint createCheckpoint() {
+        // The lowest in-flight index is the first chunk that isn't known to be complete
+        long index = inFlight.isEmpty() ? spiral.index() : inFlight.firstLongKey();
+        return checkpoint.withIndex(index);
+    }
+
+    private void report(long now) {
+        double seconds = (now - reportTimestamp) / (double) TimeUnit.SECONDS.toNanos(1);
+        double rate = (completed - reportCompleted) / seconds;
+
+        StringBuilder stages = new StringBuilder();
+        for (Profiler profiler : Profiler.values()) {
+            long hits = profiler.hits();
+            double stageRate = (hits - stageHits[profiler.ordinal()]) / seconds;
+            stages.append(stages.length() == 0 ? "" : ", ");
+            stages.append(profiler.name().toLowerCase()).append('=').append(String.format("%.1f", stageRate));
+        }
+
+        Log.info("Pre-generating {}: {}/{} chunks ({}%), {} chunks/s",
+                world.dimension().location(),
+                completed,
+                spiral.size(),
+                String.format("%.2f", getProgress()),
+                String.format("%.1f", rate)
+        );
+        Log.info(" - Stage chunks/s: {}", stages);
+
+        reportTimestamp = now;
+        reportCompleted = completed;
+        snapshotStages();
+    }
+
+    private void snapshotStages() {
+        for (Profiler profiler : Profiler.values()) {
+            stageHits[profiler.ordinal()] = profiler.hits();
+        }
+    }
+}
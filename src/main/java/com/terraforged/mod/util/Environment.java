@@ -32,6 +32,7 @@ public class Environment {
     private static final boolean dev = System.getProperty("dev") != null;
     private static final boolean verbose = System.getProperty("verbose") != null;
     private static final boolean vanillaBiomes = System.getProperty("vanillaBiomes") != null;
+    private static final boolean trackReaders = System.getProperty("trackReaders") != null;
 
     public static boolean isDev() {
         return dev;
@@ -45,6 +46,10 @@ public class Environment {
         return vanillaBiomes;
     }
 
+    public static boolean isTrackingReaders() {
+        return trackReaders;
+    }
+
     public static void log() {
         Log.info("Environment: dev={}, stable={}, vanilla={}", dev, Engine.ENFORCE_STABLE_OPTIONS, vanillaBiomes);
     }